@@ -0,0 +1,550 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+// Micro-benchmarks for the AirportManager and Flight hot paths, run the way JMH runs them:
+// every benchmark and size gets its own freshly forked JVM, so JIT profiles and heap state do
+// not leak from one benchmark into the next; each fork runs warmup and measurement iterations
+// of fixed work with untimed per-iteration setup, results go to a sink so the JIT cannot drop
+// them, and throughput is reported together with bytes allocated per operation (from the
+// per-thread allocation counters). Iterations from all forks are pooled for the error.
+//
+// Usage: java -cp out/production/AirportApp:out/bench AirportBenchmarks [name-regex]
+//   -Dbench.sizes=10000,100000   registry sizes to run each benchmark at
+//   -Dbench.threads=4            worker threads for the multi-threaded benchmarks
+//   -Dbench.warmup=5 -Dbench.iterations=10
+//   -Dbench.forks=1              JVMs per benchmark and size; 0 runs everything in this JVM
+public class AirportBenchmarks {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    // A forked JVM is started with this argument and reports its measurement on one line
+    private static final String FORK_ARGUMENT = "--fork";
+    private static final String FORK_RESULT = "FORK-RESULT";
+
+    private static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = parseSizes(System.getProperty("bench.sizes", "10000,100000"));
+        int threads = Integer.getInteger("bench.threads", 4);
+        int warmup = Integer.getInteger("bench.warmup", 5);
+        int iterations = Integer.getInteger("bench.iterations", 10);
+        int forks = Integer.getInteger("bench.forks", 1);
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        List<Benchmark> benchmarks = List.of(
+                new AddPassenger(),
+                new FindPassengersByName(),
+                new FindFlightsByDestination(),
+                new BoardPassenger(1),
+                new BoardPassenger(threads),
+                new BookItinerary(threads),
+                new RemovePassenger(),
+                new FlightInfo(),
+                new Manifests());
+
+        if (args.length == 3 && args[0].equals(FORK_ARGUMENT)) {
+            for (Benchmark benchmark : benchmarks) {
+                if (benchmark.name().equals(args[1])) {
+                    Measurement measurement = measure(benchmark, Integer.parseInt(args[2]), warmup, iterations);
+                    System.out.println(FORK_RESULT + " " + measurement.encode());
+                    return;
+                }
+            }
+            throw new IllegalArgumentException("Unknown benchmark: " + args[1]);
+        }
+
+        Pattern filter = Pattern.compile(args.length > 0 ? args[0] : ".*");
+        System.out.printf("%-28s %10s %8s %16s %12s %14s%n",
+                "Benchmark", "size", "threads", "ops/s", "error", "bytes/op");
+        for (Benchmark benchmark : benchmarks) {
+            if (!filter.matcher(benchmark.name()).find()) {
+                continue;
+            }
+            for (int size : sizes) {
+                Measurement measurement = forks > 0
+                        ? fork(benchmark, size, forks) : measure(benchmark, size, warmup, iterations);
+                double mean = mean(measurement.throughput);
+                System.out.printf(Locale.ROOT, "%-28s %10d %8d %16.0f %12.0f %14.1f%n", benchmark.name(), size,
+                        benchmark.threads(), mean, error(measurement.throughput, mean), measurement.bytesPerOp);
+            }
+        }
+    }
+
+    private static Measurement measure(Benchmark benchmark, int size, int warmup, int iterations) throws Exception {
+        benchmark.setUp(size);
+        for (int i = 0; i < warmup; i++) {
+            runIteration(benchmark);
+        }
+        double[] throughput = new double[iterations];
+        double allocated = 0;
+        for (int i = 0; i < iterations; i++) {
+            Result result = runIteration(benchmark);
+            throughput[i] = result.ops / (result.nanos / 1e9);
+            allocated += (double) result.bytes / result.ops;
+        }
+        benchmark.tearDown();
+        return new Measurement(throughput, allocated / iterations);
+    }
+
+    // Runs the benchmark in fresh JVMs with this JVM's options and classpath and pools their iterations
+    private static Measurement fork(Benchmark benchmark, int size, int forks) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), AirportBenchmarks.class.getName(),
+                FORK_ARGUMENT, benchmark.name(), Integer.toString(size)));
+
+        double[] throughput = new double[0];
+        double allocated = 0;
+        for (int f = 0; f < forks; f++) {
+            Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            Measurement measurement = null;
+            try (BufferedReader out = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = out.readLine()) != null) {
+                    if (line.startsWith(FORK_RESULT + " ")) {
+                        measurement = Measurement.decode(line.substring(FORK_RESULT.length() + 1));
+                    } else {
+                        System.out.println(line);
+                    }
+                }
+            }
+            int exitCode = process.waitFor();
+            // The fork's own stack trace has already gone to stderr
+            if (exitCode != 0 || measurement == null) {
+                throw new IllegalStateException(benchmark.name() + " failed in its forked JVM (exit code "
+                        + exitCode + ")");
+            }
+            int pooled = throughput.length;
+            throughput = Arrays.copyOf(throughput, pooled + measurement.throughput.length);
+            System.arraycopy(measurement.throughput, 0, throughput, pooled, measurement.throughput.length);
+            allocated += measurement.bytesPerOp;
+        }
+        return new Measurement(throughput, allocated / forks);
+    }
+
+    // One fixed-work iteration: setup untimed, then all workers start together at a barrier and
+    // the clock stops once the last one has finished
+    private static Result runIteration(Benchmark benchmark) throws Exception {
+        benchmark.beforeIteration();
+        int threads = benchmark.threads();
+        CyclicBarrier start = new CyclicBarrier(threads + 1);
+        CountDownLatch finished = new CountDownLatch(threads);
+        long[] ops = new long[threads];
+        long[] bytes = new long[threads];
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    long id = Thread.currentThread().threadId();
+                    start.await();
+                    long before = THREADS.getThreadAllocatedBytes(id);
+                    ops[index] = benchmark.run(index, threads);
+                    bytes[index] = THREADS.getThreadAllocatedBytes(id) - before;
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    finished.countDown();
+                }
+            }, "bench-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        start.await();
+        long began = System.nanoTime();
+        finished.await();
+        long nanos = System.nanoTime() - began;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        // The worker's own exception, not a secondary barrier failure, is the cause
+        if (failure.get() != null) {
+            throw new IllegalStateException(benchmark.name() + " failed", failure.get());
+        }
+        long totalOps = 0;
+        long totalBytes = 0;
+        for (int t = 0; t < threads; t++) {
+            totalOps += ops[t];
+            totalBytes += bytes[t];
+        }
+        return new Result(Math.max(totalOps, 1), nanos, totalBytes);
+    }
+
+    static void consume(long value) {
+        sink += value;
+    }
+
+    private static int[] parseSizes(String value) {
+        String[] parts = value.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim());
+        }
+        return sizes;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    // Half-width of a ~99.9% interval, as JMH prints it (normal approximation)
+    private static double error(double[] values, double mean) {
+        if (values.length < 2) {
+            return 0;
+        }
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return 3.29 * Math.sqrt(squares / (values.length - 1)) / Math.sqrt(values.length);
+    }
+
+    private static AirportManager populatedManager(int passengers, int flights) {
+        AirportManager manager = new AirportManager();
+        for (int i = 0; i < passengers; i++) {
+            manager.addPassenger("Passenger " + i, 18 + i % 60, "Street " + i % 1000, i % 20);
+        }
+        for (int i = 0; i < flights; i++) {
+            manager.addFlight("BM" + i, "Destination " + i, "Origin " + i % 50, 180, 20);
+        }
+        return manager;
+    }
+
+    private record Result(long ops, long nanos, long bytes) {
+    }
+
+    private record Measurement(double[] throughput, double bytesPerOp) {
+        String encode() {
+            StringBuilder line = new StringBuilder(Double.toString(bytesPerOp));
+            for (double value : throughput) {
+                line.append(' ').append(value);
+            }
+            return line.toString();
+        }
+
+        static Measurement decode(String line) {
+            String[] parts = line.trim().split(" ");
+            double[] throughput = new double[parts.length - 1];
+            for (int i = 1; i < parts.length; i++) {
+                throughput[i - 1] = Double.parseDouble(parts[i]);
+            }
+            return new Measurement(throughput, Double.parseDouble(parts[0]));
+        }
+    }
+
+    private abstract static class Benchmark {
+        abstract String name();
+
+        int threads() {
+            return 1;
+        }
+
+        abstract void setUp(int size);
+
+        void beforeIteration() {
+        }
+
+        // Performs one iteration's share of work and returns the operations completed
+        abstract long run(int thread, int threads);
+
+        void tearDown() {
+        }
+    }
+
+    // Grows a registry of the given size by a fixed batch per iteration
+    private static final class AddPassenger extends Benchmark {
+        private static final int BATCH = 20_000;
+        private AirportManager manager;
+        private int size;
+
+        String name() {
+            return "addPassenger";
+        }
+
+        void setUp(int size) {
+            this.size = size;
+        }
+
+        void beforeIteration() {
+            manager = populatedManager(size, 0);
+        }
+
+        long run(int thread, int threads) {
+            for (int i = 0; i < BATCH; i++) {
+                consume(manager.addPassenger("New Passenger " + i, 30, "Main Street", 10).getNumericId());
+            }
+            return BATCH;
+        }
+    }
+
+    private static final class FindPassengersByName extends Benchmark {
+        private static final int QUERIES = 20_000;
+        private AirportManager manager;
+        private String[] queries;
+
+        String name() {
+            return "findPassengersByName";
+        }
+
+        void setUp(int size) {
+            manager = populatedManager(size, 0);
+            queries = new String[1024];
+            for (int i = 0; i < queries.length; i++) {
+                queries[i] = "passenger " + (i * 7919L % size);
+            }
+        }
+
+        long run(int thread, int threads) {
+            for (int i = 0; i < QUERIES; i++) {
+                consume(manager.findPassengersByName(queries[i & 1023]).size());
+            }
+            return QUERIES;
+        }
+    }
+
+    private static final class FindFlightsByDestination extends Benchmark {
+        private static final int QUERIES = 50_000;
+        private AirportManager manager;
+        private String[] queries;
+
+        String name() {
+            return "findFlightsByDestination";
+        }
+
+        // One flight per hundred registered passengers
+        void setUp(int size) {
+            int flights = Math.max(size / 100, 1);
+            manager = populatedManager(0, flights);
+            queries = new String[1024];
+            for (int i = 0; i < queries.length; i++) {
+                queries[i] = "destination " + (i * 31L % flights);
+            }
+        }
+
+        long run(int thread, int threads) {
+            for (int i = 0; i < QUERIES; i++) {
+                consume(manager.findFlightsByDestination(queries[i & 1023]).size());
+            }
+            return QUERIES;
+        }
+    }
+
+    // Every iteration boards the whole registry onto a fresh flight with a seat for everyone;
+    // with several threads they all compete for the same seat counters and seat map
+    private static final class BoardPassenger extends Benchmark {
+        private final int threads;
+        private AirportManager manager;
+        private String[] passengerIds;
+        private String flightCode;
+        private int iteration;
+
+        BoardPassenger(int threads) {
+            this.threads = threads;
+        }
+
+        String name() {
+            return threads == 1 ? "boardPassenger" : "boardPassenger.threads";
+        }
+
+        int threads() {
+            return threads;
+        }
+
+        void setUp(int size) {
+            manager = populatedManager(size, 0);
+            passengerIds = manager.getAllPassengers().stream().map(Passenger::getPassengerId).toArray(String[]::new);
+        }
+
+        void beforeIteration() {
+            if (flightCode != null) {
+                manager.removeFlight(flightCode);
+            }
+            flightCode = "BOARD" + iteration++;
+            manager.addFlight(flightCode, "Anywhere", "Here", passengerIds.length, passengerIds.length);
+        }
+
+        long run(int thread, int threads) {
+            long ops = 0;
+            for (int i = thread; i < passengerIds.length; i += threads) {
+                if (manager.boardPassenger(passengerIds[i], flightCode, (i & 7) == 0
+                        ? Passenger.TicketClass.BUSINESS : Passenger.TicketClass.ECONOMY)) {
+                    ops++;
+                }
+            }
+            return ops;
+        }
+    }
+
+    // Two-leg itineraries through one hub: every thread books across the same few inbound and
+    // outbound flights in overlapping combinations, and the outbound legs only have seats for
+    // three quarters of the registry, so many bookings fail late and must give back their claims
+    private static final class BookItinerary extends Benchmark {
+        private static final int LEGS = 4;
+        private final int threads;
+        private AirportManager manager;
+        private String[] passengerIds;
+        private final List<String> flightCodes = new ArrayList<>();
+        private int iteration;
+
+        BookItinerary(int threads) {
+            this.threads = threads;
+        }
+
+        String name() {
+            return "bookItinerary.threads";
+        }
+
+        int threads() {
+            return threads;
+        }
+
+        void setUp(int size) {
+            manager = populatedManager(size, 0);
+            passengerIds = manager.getAllPassengers().stream().map(Passenger::getPassengerId).toArray(String[]::new);
+        }
+
+        void beforeIteration() {
+            for (String code : flightCodes) {
+                manager.removeFlight(code);
+            }
+            flightCodes.clear();
+            LocalDateTime departure = LocalDateTime.now().plusDays(1);
+            int inboundSeats = passengerIds.length / LEGS + 1;
+            int outboundSeats = passengerIds.length * 3 / (4 * LEGS) + 1;
+            for (int leg = 0; leg < LEGS; leg++) {
+                Flight inbound = manager.addFlight("IN" + iteration + "_" + leg, "Hub", "Origin " + leg, inboundSeats, 0);
+                inbound.setDepartureTime(departure);
+                inbound.setArrivalTime(departure.plusHours(2));
+                Flight outbound = manager.addFlight("OUT" + iteration + "_" + leg, "Destination " + leg, "Hub",
+                        outboundSeats, 0);
+                outbound.setDepartureTime(departure.plusHours(3));
+                outbound.setArrivalTime(departure.plusHours(5));
+                flightCodes.add(inbound.getFlightCode());
+                flightCodes.add(outbound.getFlightCode());
+            }
+            iteration++;
+        }
+
+        long run(int thread, int threads) {
+            for (int i = thread; i < passengerIds.length; i += threads) {
+                ItineraryResult result = manager.bookItinerary(List.of(passengerIds[i]),
+                        List.of(flightCodes.get(2 * (i % LEGS)), flightCodes.get(2 * (i / LEGS % LEGS) + 1)),
+                        Passenger.TicketClass.ECONOMY);
+                consume(result.isBooked() ? 1 : 0);
+            }
+            return (passengerIds.length - thread + threads - 1) / threads;
+        }
+    }
+
+    // Removes a slice of booked passengers per iteration; they are restored untimed afterwards
+    private static final class RemovePassenger extends Benchmark {
+        private static final int BATCH = 10_000;
+        private AirportManager manager;
+        private List<Passenger> victims;
+        private List<String> flightCodes;
+
+        String name() {
+            return "removePassenger";
+        }
+
+        void setUp(int size) {
+            manager = populatedManager(size, 100);
+            flightCodes = manager.getAllFlights().stream().map(Flight::getFlightCode).toList();
+            victims = new ArrayList<>(manager.getAllPassengers().subList(0, Math.min(BATCH, size)));
+        }
+
+        void beforeIteration() {
+            for (int i = 0; i < victims.size(); i++) {
+                Passenger p = victims.get(i);
+                if (manager.findPassengerById(p.getPassengerId()) == null) {
+                    manager.restorePassenger(p.getPassengerId(), "Passenger " + i, 30, "Street", 10);
+                }
+                String flightCode = flightCodes.get(i % flightCodes.size());
+                try {
+                    manager.boardPassenger(p.getPassengerId(), flightCode, Passenger.TicketClass.ECONOMY);
+                } catch (IllegalStateException alreadyBoarded) {
+                    // still booked from setup
+                }
+            }
+        }
+
+        long run(int thread, int threads) {
+            for (Passenger p : victims) {
+                consume(manager.removePassenger(p.getPassengerId()) ? 1 : 0);
+            }
+            return victims.size();
+        }
+    }
+
+    private static final class FlightInfo extends Benchmark {
+        private static final int CALLS = 100_000;
+        private Flight[] flights;
+
+        String name() {
+            return "getFlightInfo";
+        }
+
+        void setUp(int size) {
+            flights = populatedManager(0, 64).getAllFlights().toArray(new Flight[0]);
+        }
+
+        long run(int thread, int threads) {
+            for (int i = 0; i < CALLS; i++) {
+                consume(flights[i & 63].getFlightInfo().length());
+            }
+            return CALLS;
+        }
+    }
+
+    // Text manifests for every flight, each with 200 passengers, to a discarding stream
+    private static final class Manifests extends Benchmark {
+        private AirportManager manager;
+        private int flights;
+
+        String name() {
+            return "manifests";
+        }
+
+        void setUp(int size) {
+            flights = Math.max(size / 200, 1);
+            manager = populatedManager(flights * 200, flights);
+            List<Passenger> passengers = manager.getAllPassengers();
+            for (int i = 0; i < passengers.size(); i++) {
+                manager.boardPassenger(passengers.get(i).getPassengerId(), "BM" + i / 200,
+                        i % 200 < 20 ? Passenger.TicketClass.BUSINESS : Passenger.TicketClass.ECONOMY);
+            }
+        }
+
+        long run(int thread, int threads) {
+            try {
+                manager.writeManifests(new OutputStreamWriter(OutputStream.nullOutputStream()),
+                        ReportWriter.Format.TEXT);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return flights;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Concurrent booking stress check: many threads board, unboard, waitlist, hold and remove
+// passengers on a few small flights at once, so cabins fill up and seats change hands under
+// contention. Afterwards every flight's seat counters, seat assignments, booking index,
+// waitlists and the airport statistics must agree with its bookings; any mismatch is printed
+// and the process exits with status 1. Each round then closes one more flight while every
+// thread is still boarding it: no booking may survive that was not already there when the
+// flight departed.
+//
+// Usage: java -cp out/production/AirportApp:out/bench BoardingStressTest
+//   -Dstress.threads=8 -Dstress.rounds=5 -Dstress.operations=20000
+public class BoardingStressTest {
+    private static final int PASSENGERS = 2_000;
+    private static final int FLIGHTS = 6;
+    private static final int ECONOMY_SEATS = 150;
+    private static final int BUSINESS_SEATS = 20;
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("stress.threads", 8);
+        int rounds = Integer.getInteger("stress.rounds", 5);
+        int operations = Integer.getInteger("stress.operations", 20_000);
+
+        int failures = 0;
+        for (int round = 1; round <= rounds; round++) {
+            AirportManager manager = new AirportManager();
+            String[] passengerIds = new String[PASSENGERS];
+            for (int i = 0; i < PASSENGERS; i++) {
+                passengerIds[i] = manager.addPassenger("Passenger " + i, 30, "Street " + i, 10).getPassengerId();
+            }
+            String[] flightCodes = new String[FLIGHTS];
+            for (int i = 0; i < FLIGHTS; i++) {
+                flightCodes[i] = manager.addFlight("ST" + i, "Destination " + i, "Origin", ECONOMY_SEATS,
+                        BUSINESS_SEATS).getFlightCode();
+            }
+
+            long began = System.nanoTime();
+            run(manager, passengerIds, flightCodes, threads, operations);
+            long millis = (System.nanoTime() - began) / 1_000_000;
+
+            List<String> problems = closeUnderLoad(manager, passengerIds, threads, round);
+            problems.addAll(check(manager));
+            System.out.printf("round %d: %d threads x %d operations in %d ms, %d booked, %s%n", round, threads,
+                    operations, millis, manager.getStatistics().getTotalBoardedPassengers(),
+                    problems.isEmpty() ? "consistent" : problems.size() + " problems");
+            for (String problem : problems.subList(0, Math.min(problems.size(), 20))) {
+                System.out.println("  " + problem);
+            }
+            failures += problems.size();
+            manager.getSeatHolds().close();
+        }
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void run(AirportManager manager, String[] passengerIds, String[] flightCodes, int threads,
+                            int operations) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Throwable[] failure = new Throwable[1];
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < operations; i++) {
+                        String passengerId = passengerIds[random.nextInt(passengerIds.length)];
+                        String flightCode = flightCodes[random.nextInt(flightCodes.length)];
+                        Passenger.TicketClass ticketClass = random.nextInt(8) == 0
+                                ? Passenger.TicketClass.BUSINESS : Passenger.TicketClass.ECONOMY;
+                        operate(manager, random.nextInt(100), passengerId, flightCode, ticketClass);
+                    }
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+            }, "stress-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure[0] != null) {
+            throw new IllegalStateException("Worker failed", failure[0]);
+        }
+    }
+
+    // Rejections (full cabin, already booked, passenger just removed) are expected outcomes
+    private static void operate(AirportManager manager, int roll, String passengerId, String flightCode,
+                                Passenger.TicketClass ticketClass) {
+        try {
+            if (roll < 35) {
+                manager.boardPassenger(passengerId, flightCode, ticketClass);
+            } else if (roll < 65) {
+                manager.unboardPassenger(passengerId, flightCode);
+            } else if (roll < 80) {
+                manager.boardOrWaitlist(passengerId, flightCode, ticketClass, roll % 3);
+            } else if (roll < 92) {
+                SeatHold hold = manager.holdSeat(passengerId, flightCode, ticketClass, Duration.ofMinutes(10));
+                if (hold != null) {
+                    if (roll % 2 == 0) {
+                        manager.confirmHold(hold.getHoldId());
+                    } else {
+                        manager.releaseHold(hold.getHoldId());
+                    }
+                }
+            } else if (manager.removePassenger(passengerId)) {
+                manager.restorePassenger(passengerId, "Returning " + passengerId, 40, "Street", 5);
+            }
+        } catch (IllegalArgumentException | IllegalStateException rejected) {
+            // expected under contention
+        }
+    }
+
+    private static List<String> closeUnderLoad(AirportManager manager, String[] passengerIds, int threads,
+                                               int round) throws InterruptedException {
+        Flight flight = manager.addFlight("CL" + round, "Closing", "Origin", PASSENGERS, 0);
+        flight.setStatus(Flight.FlightStatus.BOARDING);
+        // Taken inside setStatus, right after the status is written
+        Set<String> bookedAtDeparture = ConcurrentHashMap.newKeySet();
+        flight.addListener(new FlightListener() {
+            @Override
+            public void onStatusChanged(Flight changed, Flight.FlightStatus oldStatus, Flight.FlightStatus newStatus) {
+                for (Passenger passenger : changed.getPassengerList()) {
+                    bookedAtDeparture.add(passenger.getPassengerId());
+                }
+            }
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = first; i < passengerIds.length; i += threads) {
+                    try {
+                        manager.boardPassenger(passengerIds[i], flight.getFlightCode(), Passenger.TicketClass.ECONOMY);
+                    } catch (IllegalArgumentException | IllegalStateException rejected) {
+                        // boarding closed, or the passenger was removed during the first phase
+                    }
+                }
+            }, "stress-close-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        while (flight.getTotalPassengers() < PASSENGERS / 4) {
+            Thread.onSpinWait();
+        }
+        flight.setStatus(Flight.FlightStatus.DEPARTED);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        List<String> problems = new ArrayList<>();
+        for (Passenger passenger : flight.getPassengerList()) {
+            if (!bookedAtDeparture.contains(passenger.getPassengerId())) {
+                problems.add(flight.getFlightCode() + ": " + passenger.getPassengerId() + " booked after departure");
+            }
+        }
+        return problems;
+    }
+
+    private static List<String> check(AirportManager manager) {
+        List<String> problems = new ArrayList<>();
+        long[] bookedByClass = new long[Passenger.TicketClass.values().length];
+        for (Flight flight : manager.getAllFlights()) {
+            String code = flight.getFlightCode();
+            long[] booked = new long[bookedByClass.length];
+            Set<String> seats = new HashSet<>();
+            for (Passenger passenger : flight.getPassengerList()) {
+                String passengerId = passenger.getPassengerId();
+                Passenger.TicketClass ticketClass = flight.getBookedClass(passengerId);
+                booked[ticketClass.ordinal()]++;
+                if (manager.findPassengerById(passengerId) == null) {
+                    problems.add(code + ": booking for unregistered passenger " + passengerId);
+                    continue;
+                }
+                String seat = flight.getSeat(passengerId);
+                if (seat == null || !seats.add(seat)) {
+                    problems.add(code + ": passenger " + passengerId + " has seat " + seat);
+                }
+                if (!manager.findBookings(passengerId).contains(flight)) {
+                    problems.add(code + ": booking index is missing " + passengerId);
+                }
+            }
+            for (Passenger.TicketClass ticketClass : Passenger.TicketClass.values()) {
+                int total = ticketClass == Passenger.TicketClass.BUSINESS
+                        ? flight.getTotalBusinessSeats() : flight.getTotalEconomySeats();
+                int available = flight.getAvailableSeats(ticketClass);
+                long taken = booked[ticketClass.ordinal()];
+                bookedByClass[ticketClass.ordinal()] += taken;
+                if (available < 0 || taken > total || available + taken != total) {
+                    problems.add(String.format("%s %s: %d available + %d booked != %d seats", code,
+                            ticketClass.getName(), available, taken, total));
+                }
+                if (available > 0) {
+                    for (Passenger waiting : flight.getWaitlist().getPassengers(ticketClass)) {
+                        if (waiting.isRegistered()) {
+                            problems.add(code + " " + ticketClass.getName() + ": " + waiting.getPassengerId()
+                                    + " still waitlisted with " + available + " seats free");
+                        }
+                    }
+                }
+            }
+        }
+        for (Passenger passenger : manager.getAllPassengers()) {
+            for (Flight flight : manager.findBookings(passenger.getPassengerId())) {
+                if (flight.getBookedClass(passenger.getPassengerId()) == null) {
+                    problems.add("booking index lists " + flight.getFlightCode() + " for "
+                            + passenger.getPassengerId() + " without a booking");
+                }
+            }
+        }
+        AirportStatistics statistics = manager.getStatistics();
+        for (Passenger.TicketClass ticketClass : Passenger.TicketClass.values()) {
+            long counted = statistics.getBoardedPassengers(ticketClass);
+            if (counted != bookedByClass[ticketClass.ordinal()]) {
+                problems.add("statistics count " + counted + " " + ticketClass.getName() + " passengers, flights hold "
+                        + bookedByClass[ticketClass.ordinal()]);
+            }
+        }
+        return problems;
+    }
+}
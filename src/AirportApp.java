@@ -1,3 +1,12 @@
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.InputMismatchException;
@@ -6,11 +15,27 @@ import java.util.Scanner;
 
 public class AirportApp {
     private static final Scanner scanner = new Scanner(System.in);
-    private static final AirportManager airportManager = new AirportManager();
+    private static final AirportMetrics metrics = new AirportMetrics();
+    private static final AirportManager airportManager = new InstrumentedAirportManager(metrics);
     private static final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final long SNAPSHOT_INTERVAL_MILLIS = 10 * 60 * 1000;
+    private static final int DEFAULT_SERVER_PORT = 7070;
+    private static volatile AirportServer server;
 
     public static void main(String[] args) {
-        initializeSampleData();
+        metrics.registerMBean();
+        if (args.length > 0 && args[0].equals("--serve")) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--script")) {
+            runScript(args.length > 1 ? args[1] : "-");
+            return;
+        }
+        if (!openJournal()) {
+            initializeSampleData();
+        }
+        startLifecycleScheduler();
 
         System.out.println("╔════════════════════════════════════════╗");
         System.out.println("║   AIRPORT MANAGEMENT SYSTEM            ║");
@@ -56,7 +81,9 @@ public class AirportApp {
             System.out.println("│ 2. View All Passengers");
             System.out.println("│ 3. Search Passenger");
             System.out.println("│ 4. Remove Passenger");
-            System.out.println("│ 5. Back to Main Menu");
+            System.out.println("│ 5. View Passenger Bookings");
+            System.out.println("│ 6. Import Passengers from CSV");
+            System.out.println("│ 7. Back to Main Menu");
             System.out.println("└────────────────────────────┘");
 
             int choice = getIntInput("Enter your choice: ");
@@ -66,7 +93,9 @@ public class AirportApp {
                 case 2 -> viewAllPassengers();
                 case 3 -> searchPassenger();
                 case 4 -> removePassenger();
-                case 5 -> { return; }
+                case 5 -> viewPassengerBookings();
+                case 6 -> importPassengers();
+                case 7 -> { return; }
                 default -> System.out.println("Invalid choice. Please try again.");
             }
         }
@@ -80,7 +109,9 @@ public class AirportApp {
             System.out.println("│ 3. Search Flight");
             System.out.println("│ 4. Update Flight Status");
             System.out.println("│ 5. Remove Flight");
-            System.out.println("│ 6. Back to Main Menu");
+            System.out.println("│ 6. Upcoming Departures");
+            System.out.println("│ 7. Import Flights from CSV");
+            System.out.println("│ 8. Back to Main Menu");
             System.out.println("└─────────────────────────┘");
 
             int choice = getIntInput("Enter your choice: ");
@@ -91,7 +122,9 @@ public class AirportApp {
                 case 3 -> searchFlight();
                 case 4 -> updateFlightStatus();
                 case 5 -> removeFlight();
-                case 6 -> { return; }
+                case 6 -> viewUpcomingDepartures();
+                case 7 -> importFlights();
+                case 8 -> { return; }
                 default -> System.out.println("Invalid choice. Please try again.");
             }
         }
@@ -102,7 +135,8 @@ public class AirportApp {
             System.out.println("\n┌─── BOARDING OPERATIONS ───┐");
             System.out.println("│ 1. Board Passenger");
             System.out.println("│ 2. View Flight Manifest");
-            System.out.println("│ 3. Back to Main Menu");
+            System.out.println("│ 3. View Seat Map");
+            System.out.println("│ 4. Back to Main Menu");
             System.out.println("└───────────────────────────┘");
 
             int choice = getIntInput("Enter your choice: ");
@@ -110,7 +144,8 @@ public class AirportApp {
             switch (choice) {
                 case 1 -> boardPassenger();
                 case 2 -> viewFlightManifest();
-                case 3 -> { return; }
+                case 3 -> viewSeatMap();
+                case 4 -> { return; }
                 default -> System.out.println("Invalid choice. Please try again.");
             }
         }
@@ -121,7 +156,9 @@ public class AirportApp {
             System.out.println("\n┌─── REPORTS & STATISTICS ───┐");
             System.out.println("│ 1. Airport Statistics");
             System.out.println("│ 2. All Flight Manifests");
-            System.out.println("│ 3. Back to Main Menu");
+            System.out.println("│ 3. Export Report");
+            System.out.println("│ 4. Operation Metrics");
+            System.out.println("│ 5. Back to Main Menu");
             System.out.println("└────────────────────────────┘");
 
             int choice = getIntInput("Enter your choice: ");
@@ -129,7 +166,9 @@ public class AirportApp {
             switch (choice) {
                 case 1 -> airportManager.printAirportStatistics();
                 case 2 -> printAllManifests();
-                case 3 -> { return; }
+                case 3 -> exportReport();
+                case 4 -> System.out.print(metrics.getReport());
+                case 5 -> { return; }
                 default -> System.out.println("Invalid choice. Please try again.");
             }
         }
@@ -198,6 +237,44 @@ public class AirportApp {
         }
     }
 
+    private static void viewPassengerBookings() {
+        scanner.nextLine(); // Clear buffer
+        System.out.print("Enter passenger ID: ");
+        String passengerId = scanner.nextLine();
+
+        Passenger passenger = airportManager.findPassengerById(passengerId);
+        if (passenger == null) {
+            System.out.println("✗ Passenger not found!");
+            return;
+        }
+
+        List<Flight> bookings = airportManager.findBookings(passengerId);
+        if (bookings.isEmpty()) {
+            System.out.println(passenger.getName() + " has no bookings.");
+            return;
+        }
+
+        System.out.println("\n--- Bookings for " + passenger.getName() + " ---");
+        for (Flight flight : bookings) {
+            System.out.printf("%s  %s → %s  %s  [%s]%n",
+                    flight.getFlightCode(), flight.getOrigin(), flight.getDestination(),
+                    flight.getDepartureTime().format(timeFormatter),
+                    flight.getBookedClass(passenger.getPassengerId()).getName());
+        }
+    }
+
+    private static void importPassengers() {
+        scanner.nextLine(); // Clear buffer
+        System.out.print("Enter CSV file path (name,age,address,baggage_weight): ");
+        String path = scanner.nextLine();
+
+        try {
+            printImportReport(new BulkImporter(airportManager).importPassengers(Path.of(path)));
+        } catch (IOException e) {
+            System.err.println("✗ Import failed: " + e.getMessage());
+        }
+    }
+
     // Flight Operations
     private static void addFlight() {
         System.out.println("\n--- Add New Flight ---");
@@ -262,8 +339,12 @@ public class AirportApp {
 
         int choice = getIntInput("Enter choice: ");
         if (choice > 0 && choice <= statuses.length) {
-            flight.setStatus(statuses[choice - 1]);
-            System.out.println("✓ Flight status updated successfully!");
+            try {
+                flight.setStatus(statuses[choice - 1]);
+                System.out.println("✓ Flight status updated successfully!");
+            } catch (IllegalStateException e) {
+                System.out.println("✗ " + e.getMessage());
+            }
         } else {
             System.out.println("Invalid choice!");
         }
@@ -281,6 +362,48 @@ public class AirportApp {
         }
     }
 
+    private static void viewUpcomingDepartures() {
+        int hours = getIntInput("Show departures within how many hours? ");
+        if (hours <= 0) {
+            System.out.println("Invalid number of hours!");
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Flight> departing = airportManager.findFlightsDepartingBetween(now, now.plusHours(hours), null);
+        if (departing.isEmpty()) {
+            System.out.println("No departures in the next " + hours + " hour(s).");
+            return;
+        }
+
+        System.out.println("\n--- Departures in the next " + hours + " hour(s) ---");
+        for (Flight flight : departing) {
+            System.out.printf("%s  %-8s %s → %s  [%s]%n",
+                    flight.getDepartureTime().format(timeFormatter), flight.getFlightCode(),
+                    flight.getOrigin(), flight.getDestination(), flight.getStatus().getDisplayName());
+        }
+    }
+
+    private static void importFlights() {
+        scanner.nextLine(); // Clear buffer
+        System.out.print("Enter CSV file path (flight_code,origin,destination,economy_seats,business_seats): ");
+        String path = scanner.nextLine();
+
+        try {
+            printImportReport(new BulkImporter(airportManager).importFlights(Path.of(path)));
+        } catch (IOException e) {
+            System.err.println("✗ Import failed: " + e.getMessage());
+        }
+    }
+
+    private static void printImportReport(ImportReport report) {
+        System.out.println("✓ " + report);
+        report.getErrors().stream().limit(20).forEach(error -> System.out.println("  ✗ " + error));
+        if (report.getRejected() > 20) {
+            System.out.println("  ... " + (report.getRejected() - 20) + " more rejected rows");
+        }
+    }
+
     // Boarding Operations
     private static void boardPassenger() {
         System.out.println("\n--- Board Passenger ---");
@@ -313,12 +436,39 @@ public class AirportApp {
                 System.out.println("✓ Passenger boarded successfully!");
             } else {
                 System.out.println("✗ No seats available in " + ticketClass.getName() + " class!");
+                offerWaitlist(passengerInput, flightCode, ticketClass);
             }
         } catch (Exception e) {
             System.err.println("✗ Boarding failed: " + e.getMessage());
         }
     }
 
+    private static void offerWaitlist(String passengerInput, String flightCode, Passenger.TicketClass ticketClass) {
+        scanner.nextLine(); // Clear buffer
+        System.out.print("Join the waitlist? (y/n): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+            return;
+        }
+        String passengerId = passengerInput;
+        if (!passengerInput.startsWith("P")) {
+            List<Passenger> matches = airportManager.findPassengersByName(passengerInput);
+            if (matches.isEmpty()) {
+                System.out.println("Passenger not found!");
+                return;
+            }
+            passengerId = matches.get(0).getPassengerId();
+        }
+        BoardingResult.Outcome outcome = airportManager.boardOrWaitlist(passengerId, flightCode, ticketClass, 0);
+        if (outcome == BoardingResult.Outcome.BOARDED) {
+            System.out.println("✓ A seat just came free: passenger boarded successfully!");
+        } else {
+            int position = airportManager.findFlightByCode(flightCode).getWaitlist()
+                    .getPosition(airportManager.findPassengerById(passengerId).getPassengerId());
+            System.out.println("✓ Added to the " + ticketClass.getName() + " waitlist at position " + position
+                    + "; the passenger is boarded automatically when a seat frees up");
+        }
+    }
+
     private static void viewFlightManifest() {
         scanner.nextLine(); // Clear buffer
         System.out.print("Enter flight code: ");
@@ -327,6 +477,21 @@ public class AirportApp {
         airportManager.printFlightManifest(flightCode);
     }
 
+    private static void viewSeatMap() {
+        scanner.nextLine(); // Clear buffer
+        System.out.print("Enter flight code: ");
+        String flightCode = scanner.nextLine();
+
+        Flight flight = airportManager.findFlightByCode(flightCode);
+        if (flight == null) {
+            System.out.println("Flight not found!");
+            return;
+        }
+        System.out.println("\n--- Seat Map " + flight.getFlightCode() + " ---");
+        System.out.print(flight.renderSeatMap());
+        System.out.println("Legend: . free  X taken  # blocked");
+    }
+
     private static void printAllManifests() {
         List<Flight> flights = airportManager.getAllFlights();
         if (flights.isEmpty()) {
@@ -334,9 +499,40 @@ public class AirportApp {
             return;
         }
 
-        for (Flight flight : flights) {
-            airportManager.printFlightManifest(flight.getFlightCode());
-            System.out.println();
+        airportManager.printAllManifests();
+    }
+
+    private static void exportReport() {
+        System.out.println("\n--- Export Report ---");
+        System.out.println("1. All Flight Manifests");
+        System.out.println("2. Flight List");
+        System.out.println("3. Airport Statistics");
+        int report = getIntInput("Select report: ");
+        if (report < 1 || report > 3) {
+            System.out.println("Invalid choice.");
+            return;
+        }
+
+        System.out.println("1. Text  2. CSV  3. JSON");
+        int formatChoice = getIntInput("Select format: ");
+        ReportWriter.Format format = switch (formatChoice) {
+            case 2 -> ReportWriter.Format.CSV;
+            case 3 -> ReportWriter.Format.JSON;
+            default -> ReportWriter.Format.TEXT;
+        };
+        scanner.nextLine(); // Clear buffer
+        System.out.print("Enter output file path: ");
+        Path path = Path.of(scanner.nextLine().trim());
+
+        try (Writer out = Files.newBufferedWriter(path)) {
+            switch (report) {
+                case 1 -> airportManager.writeManifests(out, format);
+                case 2 -> airportManager.writeFlights(out, format);
+                default -> airportManager.writeStatistics(out, format);
+            }
+            System.out.println("✓ Report written to " + path.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("✗ Export failed: " + e.getMessage());
         }
     }
 
@@ -365,6 +561,107 @@ public class AirportApp {
         }
     }
 
+    // Persistence is enabled with -Dairport.dataDir=<directory>; returns true if state was restored
+    private static boolean openJournal() {
+        String dataDir = System.getProperty("airport.dataDir");
+        if (dataDir == null) {
+            return false;
+        }
+
+        try {
+            AirportJournal journal = new AirportJournal(Path.of(dataDir), 256, 50);
+            journal.recover(airportManager);
+            // Replay goes through the instrumented manager, but it is not traffic worth reporting
+            metrics.reset();
+            // Counts only: listing passengers here would decode the whole mapped snapshot at startup
+            boolean restored = airportManager.getPassengerCount() > 0 || airportManager.getFlightCount() > 0;
+            airportManager.setJournal(journal);
+            journal.scheduleSnapshots(airportManager, SNAPSHOT_INTERVAL_MILLIS);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    closeServer();
+                    journal.snapshot(airportManager);
+                    journal.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to save data: " + e.getMessage());
+                }
+            }));
+
+            if (restored) {
+                System.out.println("✓ Restored " + airportManager.getPassengerCount() + " passengers and "
+                        + airportManager.getFlightCount() + " flights from " + dataDir);
+            }
+            return restored;
+        } catch (IOException e) {
+            System.err.println("Failed to open data directory " + dataDir + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Automatic status changes are enabled with -Dairport.autoStatus=true; boarding opens
+    // -Dairport.boardingLeadMinutes before departure (default 30)
+    private static void startLifecycleScheduler() {
+        if (!Boolean.getBoolean("airport.autoStatus")) {
+            return;
+        }
+        long leadMinutes = Long.getLong("airport.boardingLeadMinutes", 30);
+        FlightLifecycleScheduler scheduler = new FlightLifecycleScheduler(Clock.systemDefaultZone(),
+                Duration.ofMinutes(leadMinutes));
+        airportManager.setLifecycleScheduler(scheduler);
+        scheduler.start();
+    }
+
+    // Headless mode: serves AirportCommands over TCP until the process is stopped
+    private static void serve(int port) {
+        openJournal();
+        startLifecycleScheduler();
+        try {
+            server = new AirportServer(airportManager, port);
+        } catch (IOException e) {
+            System.err.println("Failed to start server on port " + port + ": " + e.getMessage());
+            System.exit(1);
+        }
+        if (System.getProperty("airport.dataDir") == null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(AirportApp::closeServer));
+        }
+        System.out.println("✓ Listening on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort());
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Batch mode: replays a command script from a file, or stdin for "-", then prints timings
+    private static void runScript(String source) {
+        openJournal();
+        ScriptRunner runner = new ScriptRunner(airportManager);
+        try {
+            ScriptReport report = source.equals("-")
+                    ? runner.run(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                    : runner.run(Path.of(source));
+            for (ImportReport.RowError error : report.getErrors()) {
+                System.err.println("  " + error);
+            }
+            System.out.print(report);
+        } catch (IOException e) {
+            System.err.println("Failed to read script " + source + ": " + e.getMessage());
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static void closeServer() {
+        AirportServer current = server;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                System.err.println("Failed to stop server: " + e.getMessage());
+            }
+        }
+    }
+
     // Initialize sample data for testing
     private static void initializeSampleData() {
         try {
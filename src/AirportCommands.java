@@ -0,0 +1,383 @@
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Text command set over AirportManager, shared by the network service and script mode.
+// A command is a list of tokens (see CommandTokenizer); the result is a single-line JSON
+// value. Bad input surfaces as IllegalArgumentException, rejected operations as
+// IllegalStateException, exactly as the manager reports them.
+public class AirportCommands {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int DEFAULT_HOLD_SECONDS = 600;
+    private static final int DEFAULT_CONNECTION_MINUTES = 45;
+
+    public static final String USAGE = String.join("\n",
+            "ping",
+            "add-passenger <name> <age> <address> <baggage-kg> [<passenger-id>]",
+            "get-passenger <passenger-id>",
+            "search-passengers <name>",
+            "rename-passenger <passenger-id> <name>",
+            "remove-passenger <passenger-id>",
+            "add-flight <code> <origin> <destination> <economy-seats> <business-seats> [<departure> <arrival>]",
+            "remove-flight <code>",
+            "find-flights <destination>",
+            "flights",
+            "route <origin> <destination> <depart-after> [earliest|fewest] [<min-connection-minutes>] [economy|business]",
+            "set-status <code> <status>",
+            "fare <code>",
+            "set-fare <code> <base-fare>",
+            "board <passenger-id> <code> [economy|business]",
+            "unboard <passenger-id> <code>",
+            "itinerary <economy|business> <passenger-id>[,<passenger-id>...] <code> [<code>...]",
+            "waitlist <passenger-id> <code> [economy|business] [<priority>]",
+            "leave-waitlist <passenger-id> <code>",
+            "hold <passenger-id> <code> [economy|business] [<seconds>]",
+            "confirm-hold <hold-id>",
+            "release-hold <hold-id>",
+            "bookings <passenger-id>",
+            "manifest <code>",
+            "stats",
+            "remove passenger <passenger-id> | remove flight <code> | remove booking <passenger-id> <code>",
+            "report stats | report flights | report manifests | report manifest <code>");
+
+    private final AirportManager manager;
+
+    public AirportCommands(AirportManager manager) {
+        this.manager = manager;
+    }
+
+    public String execute(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Empty command");
+        }
+        String command = tokens.get(0).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(64);
+        switch (command) {
+            case "ping" -> sb.append("\"pong\"");
+            case "add-passenger" -> {
+                expect(tokens, 5, 6);
+                String name = tokens.get(1);
+                int age = parseInt(tokens.get(2), "age");
+                double baggageWeight = parseDouble(tokens.get(4), "baggage weight");
+                // An explicit ID lets recorded scripts refer to the passenger later, as CSV imports do
+                Passenger passenger = tokens.size() == 6
+                        ? manager.restorePassenger(tokens.get(5), name, age, tokens.get(3), baggageWeight)
+                        : manager.addPassenger(name, age, tokens.get(3), baggageWeight);
+                sb.append("{\"passengerId\":\"").append(passenger.getPassengerId()).append("\"}");
+            }
+            case "get-passenger" -> {
+                expect(tokens, 2, 2);
+                return json(report -> report.writePassengers(List.of(requirePassenger(tokens.get(1)))), true);
+            }
+            case "search-passengers" -> {
+                expect(tokens, 2, 2);
+                return json(report -> report.writePassengers(manager.findPassengersByName(tokens.get(1))), false);
+            }
+            case "remove-passenger" -> {
+                expect(tokens, 2, 2);
+                sb.append("{\"removed\":").append(manager.removePassenger(tokens.get(1))).append('}');
+            }
+            case "rename-passenger" -> {
+                expect(tokens, 3, 3);
+                sb.append("{\"renamed\":").append(manager.renamePassenger(tokens.get(1), tokens.get(2))).append('}');
+            }
+            case "add-flight" -> {
+                expect(tokens, 6, 8);
+                if (tokens.size() == 7) {
+                    throw new IllegalArgumentException("Give both departure and arrival, or neither");
+                }
+                Flight flight = manager.addFlight(tokens.get(1), tokens.get(3), tokens.get(2),
+                        parseInt(tokens.get(4), "economy seats"), parseInt(tokens.get(5), "business seats"));
+                if (tokens.size() == 8) {
+                    flight.setDepartureTime(parseTime(tokens.get(6)));
+                    flight.setArrivalTime(parseTime(tokens.get(7)));
+                }
+                sb.append("{\"flightCode\":");
+                ReportWriter.appendJson(sb, flight.getFlightCode()).append('}');
+            }
+            case "remove-flight" -> {
+                expect(tokens, 2, 2);
+                sb.append("{\"removed\":").append(manager.removeFlight(tokens.get(1))).append('}');
+            }
+            case "find-flights" -> {
+                expect(tokens, 2, 2);
+                return json(report -> report.writeFlights(manager.findFlightsByDestination(tokens.get(1))), false);
+            }
+            case "flights" -> {
+                expect(tokens, 1, 1);
+                return json(report -> report.writeFlights(manager.getAllFlights()), false);
+            }
+            case "route" -> {
+                expect(tokens, 4, 7);
+                boolean fewest = tokens.size() >= 5 && parseRouteMode(tokens.get(4));
+                Duration minConnection = Duration.ofMinutes(tokens.size() >= 6
+                        ? parseInt(tokens.get(5), "connection minutes") : DEFAULT_CONNECTION_MINUTES);
+                Passenger.TicketClass ticketClass = tokens.size() == 7 ? parseTicketClass(tokens.get(6)) : null;
+                LocalDateTime departAfter = parseTime(tokens.get(3));
+                List<Flight> route = fewest
+                        ? manager.findFewestLegsRoute(tokens.get(1), tokens.get(2), departAfter, null, minConnection,
+                                ticketClass, 1)
+                        : manager.findEarliestRoute(tokens.get(1), tokens.get(2), departAfter, null, minConnection,
+                                ticketClass, 1);
+                return json(report -> report.writeFlights(route), false);
+            }
+            case "fare" -> {
+                expect(tokens, 2, 2);
+                sb.append("{\"baseFare\":").append(manager.getBaseFare(tokens.get(1)))
+                        .append(",\"economy\":").append(manager.quoteFare(tokens.get(1), Passenger.TicketClass.ECONOMY))
+                        .append(",\"business\":").append(manager.quoteFare(tokens.get(1), Passenger.TicketClass.BUSINESS))
+                        .append('}');
+            }
+            case "set-fare" -> {
+                expect(tokens, 3, 3);
+                manager.setBaseFare(tokens.get(1), parseDouble(tokens.get(2), "base fare"));
+                sb.append("{\"baseFare\":").append(manager.getBaseFare(tokens.get(1))).append('}');
+            }
+            case "set-status" -> {
+                expect(tokens, 3, 3);
+                Flight flight = requireFlight(tokens.get(1));
+                flight.setStatus(parseStatus(tokens.get(2)));
+                sb.append("{\"status\":");
+                ReportWriter.appendJson(sb, flight.getStatus().getDisplayName()).append('}');
+            }
+            case "board" -> {
+                expect(tokens, 3, 4);
+                Passenger.TicketClass ticketClass = tokens.size() == 4
+                        ? parseTicketClass(tokens.get(3)) : Passenger.TicketClass.ECONOMY;
+                boolean boarded = manager.boardPassenger(tokens.get(1), tokens.get(2), ticketClass);
+                sb.append("{\"boarded\":").append(boarded);
+                if (boarded) {
+                    sb.append(",\"seat\":");
+                    ReportWriter.appendJson(sb, requireFlight(tokens.get(2)).getSeat(registeredId(tokens.get(1))));
+                }
+                sb.append('}');
+            }
+            case "itinerary" -> {
+                expect(tokens, 4, Integer.MAX_VALUE);
+                ItineraryResult result = manager.bookItinerary(List.of(tokens.get(2).split(",")),
+                        tokens.subList(3, tokens.size()), parseTicketClass(tokens.get(1)));
+                sb.append("{\"booked\":").append(result.isBooked());
+                if (!result.isBooked()) {
+                    sb.append(",\"outcome\":");
+                    ReportWriter.appendJson(sb, result.getOutcome().getDisplayName());
+                    sb.append(",\"flight\":");
+                    ReportWriter.appendJson(sb, result.getFailedFlightCode());
+                    sb.append(",\"passenger\":");
+                    ReportWriter.appendJson(sb, result.getFailedPassengerId());
+                }
+                sb.append('}');
+            }
+            case "waitlist" -> {
+                expect(tokens, 3, 5);
+                Passenger.TicketClass ticketClass = tokens.size() >= 4
+                        ? parseTicketClass(tokens.get(3)) : Passenger.TicketClass.ECONOMY;
+                int priority = tokens.size() == 5 ? parseInt(tokens.get(4), "priority") : 0;
+                BoardingResult.Outcome outcome = manager.boardOrWaitlist(tokens.get(1), tokens.get(2),
+                        ticketClass, priority);
+                Flight flight = requireFlight(tokens.get(2));
+                sb.append("{\"outcome\":");
+                ReportWriter.appendJson(sb, outcome.getDisplayName());
+                if (outcome == BoardingResult.Outcome.BOARDED) {
+                    sb.append(",\"seat\":");
+                    ReportWriter.appendJson(sb, flight.getSeat(registeredId(tokens.get(1))));
+                } else {
+                    sb.append(",\"position\":").append(flight.getWaitlist().getPosition(registeredId(tokens.get(1))));
+                }
+                sb.append('}');
+            }
+            case "hold" -> {
+                expect(tokens, 3, 5);
+                Passenger.TicketClass ticketClass = tokens.size() >= 4
+                        ? parseTicketClass(tokens.get(3)) : Passenger.TicketClass.ECONOMY;
+                long seconds = tokens.size() == 5 ? parseInt(tokens.get(4), "hold time") : DEFAULT_HOLD_SECONDS;
+                SeatHold hold = manager.holdSeat(tokens.get(1), tokens.get(2), ticketClass, Duration.ofSeconds(seconds));
+                if (hold == null) {
+                    sb.append("{\"held\":false}");
+                } else {
+                    sb.append("{\"held\":true,\"holdId\":");
+                    ReportWriter.appendJson(sb, hold.getHoldId()).append(",\"seat\":");
+                    ReportWriter.appendJson(sb, hold.getSeat()).append(",\"expiresAt\":");
+                    ReportWriter.appendJson(sb, Instant.ofEpochMilli(hold.getExpiresAtMillis()).toString()).append('}');
+                }
+            }
+            case "confirm-hold" -> {
+                expect(tokens, 2, 2);
+                sb.append("{\"boarded\":").append(manager.confirmHold(tokens.get(1))).append('}');
+            }
+            case "release-hold" -> {
+                expect(tokens, 2, 2);
+                sb.append("{\"released\":").append(manager.releaseHold(tokens.get(1))).append('}');
+            }
+            case "leave-waitlist" -> {
+                expect(tokens, 3, 3);
+                sb.append("{\"removed\":").append(manager.leaveWaitlist(tokens.get(1), tokens.get(2))).append('}');
+            }
+            case "unboard" -> {
+                expect(tokens, 3, 3);
+                sb.append("{\"removed\":").append(manager.unboardPassenger(tokens.get(1), tokens.get(2))).append('}');
+            }
+            case "bookings" -> {
+                expect(tokens, 2, 2);
+                sb.append('[');
+                List<Flight> flights = manager.findBookings(tokens.get(1));
+                for (int i = 0; i < flights.size(); i++) {
+                    if (i > 0) {
+                        sb.append(',');
+                    }
+                    ReportWriter.appendJson(sb, flights.get(i).getFlightCode());
+                }
+                sb.append(']');
+            }
+            case "manifest" -> {
+                expect(tokens, 2, 2);
+                Flight flight = requireFlight(tokens.get(1));
+                return json(report -> report.writeManifest(flight), false);
+            }
+            case "stats" -> {
+                expect(tokens, 1, 1);
+                return json(report -> report.writeStatistics(manager), false);
+            }
+            case "remove" -> {
+                expect(tokens, 3, 4);
+                String what = tokens.get(1).toLowerCase(Locale.ROOT);
+                if (what.equals("booking") && tokens.size() == 4) {
+                    return execute(List.of("unboard", tokens.get(2), tokens.get(3)));
+                } else if ((what.equals("passenger") || what.equals("flight")) && tokens.size() == 3) {
+                    return execute(List.of("remove-" + what, tokens.get(2)));
+                }
+                throw new IllegalArgumentException("Usage: " + usageOf(command));
+            }
+            case "report" -> {
+                expect(tokens, 2, 3);
+                String what = tokens.get(1).toLowerCase(Locale.ROOT);
+                if (what.equals("manifests") && tokens.size() == 2) {
+                    return json(report -> report.writeManifests(manager.getAllFlights()), false);
+                } else if (what.equals("manifest") && tokens.size() == 3) {
+                    return execute(List.of("manifest", tokens.get(2)));
+                } else if ((what.equals("stats") || what.equals("flights")) && tokens.size() == 2) {
+                    return execute(List.of(what));
+                }
+                throw new IllegalArgumentException("Usage: " + usageOf(command));
+            }
+            default -> throw new IllegalArgumentException("Unknown command: " + tokens.get(0));
+        }
+        return sb.toString();
+    }
+
+    private Passenger requirePassenger(String passengerId) {
+        Passenger passenger = manager.findPassengerById(passengerId);
+        if (passenger == null) {
+            throw new IllegalArgumentException("Passenger not found: " + passengerId);
+        }
+        return passenger;
+    }
+
+    private Flight requireFlight(String flightCode) {
+        Flight flight = manager.findFlightByCode(flightCode);
+        if (flight == null) {
+            throw new IllegalArgumentException("Flight not found: " + flightCode);
+        }
+        return flight;
+    }
+
+    // Seats and waitlist places are keyed by the passenger's own ID text, not the text typed
+    private String registeredId(String passengerId) {
+        Passenger passenger = manager.findPassengerById(passengerId);
+        return passenger != null ? passenger.getPassengerId() : passengerId;
+    }
+
+    // Renders through ReportWriter's JSON format; its line breaks fall between values only
+    private static String json(Report body, boolean single) {
+        StringWriter out = new StringWriter();
+        try {
+            ReportWriter report = new ReportWriter(out, ReportWriter.Format.JSON);
+            body.write(report);
+            report.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String text = out.toString().replace("\n", "");
+        return single && text.length() >= 2 ? text.substring(1, text.length() - 1) : text;
+    }
+
+    private static void expect(List<String> tokens, int min, int max) {
+        if (tokens.size() < min || tokens.size() > max) {
+            throw new IllegalArgumentException("Usage: " + usageOf(tokens.get(0)));
+        }
+    }
+
+    private static String usageOf(String command) {
+        for (String usage : USAGE.split("\n")) {
+            if (usage.startsWith(command.toLowerCase(Locale.ROOT) + " ") || usage.equals(command)) {
+                return usage;
+            }
+        }
+        return command;
+    }
+
+    private static int parseInt(String value, String what) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String value, String what) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+
+    private static boolean parseRouteMode(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "earliest" -> false;
+            case "fewest" -> true;
+            default -> throw new IllegalArgumentException("Invalid route mode: " + value);
+        };
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        try {
+            return LocalDateTime.parse(value, TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time (expected yyyy-MM-dd HH:mm): " + value);
+        }
+    }
+
+    static Flight.FlightStatus parseStatus(String value) {
+        for (Flight.FlightStatus status : Flight.FlightStatus.values()) {
+            if (status.name().equalsIgnoreCase(value) || status.getDisplayName().equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        List<String> names = new ArrayList<>();
+        for (Flight.FlightStatus status : Flight.FlightStatus.values()) {
+            names.add(status.name().toLowerCase(Locale.ROOT));
+        }
+        throw new IllegalArgumentException("Unknown status " + value + ", expected one of " + names);
+    }
+
+    static Passenger.TicketClass parseTicketClass(String value) {
+        for (Passenger.TicketClass ticketClass : Passenger.TicketClass.values()) {
+            if (ticketClass.name().equalsIgnoreCase(value)) {
+                return ticketClass;
+            }
+        }
+        throw new IllegalArgumentException("Unknown ticket class: " + value);
+    }
+
+    private interface Report {
+        void write(ReportWriter report) throws IOException;
+    }
+}
@@ -0,0 +1,365 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Durable record of every AirportManager mutation: an OperationLog of small binary
+// operations plus periodic AirportSnapshot compactions. Recovery maps the snapshot and
+// only decodes passengers as they are touched, so the manager is usable right away.
+//
+// A snapshot first rotates the log and then captures live state, so operations that race
+// with the capture are both in the image and in the replayed segment. Replay is therefore
+// idempotent: adds of existing entries are skipped and bookings are only re-applied if absent.
+// An operation logged before its change becomes visible holds the rotation lock shared across
+// both steps, so the record and the change always land on the same side of a snapshot.
+public class AirportJournal implements FlightListener, Closeable {
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+
+    private static final byte ADD_PASSENGER = 1;
+    private static final byte REMOVE_PASSENGER = 2;
+    private static final byte ADD_FLIGHT = 3;
+    private static final byte REMOVE_FLIGHT = 4;
+    private static final byte BOARD = 5;
+    private static final byte UNBOARD = 6;
+    private static final byte STATUS = 7;
+    private static final byte ROUTE = 8;
+    private static final byte SCHEDULE = 9;
+    private static final byte SEAT_BLOCK = 10;
+    private static final byte RENAME_PASSENGER = 11;
+
+    private final Path directory;
+    private final OperationLog log;
+    private final ReadWriteLock rotation = new ReentrantReadWriteLock();
+    private ScheduledExecutorService snapshotScheduler;
+
+    public AirportJournal(Path directory, int fsyncBatchSize, long fsyncIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.log = new OperationLog(directory, fsyncBatchSize, fsyncIntervalMillis);
+    }
+
+    // Rebuilds an empty manager from the last snapshot plus every log segment written after it
+    public long recover(AirportManager manager) throws IOException {
+        AirportSnapshot snapshot = AirportSnapshot.open(directory.resolve(SNAPSHOT_FILE));
+        long replayFrom = 0;
+        if (snapshot != null) {
+            snapshot.restoreInto(manager);
+            replayFrom = snapshot.getReplayFromSegment();
+        }
+        return OperationLog.replay(directory, replayFrom, log.getActiveSegment(), record -> apply(manager, record));
+    }
+
+    public synchronized void snapshot(AirportManager manager) throws IOException {
+        long replayFrom;
+        rotation.writeLock().lock();
+        try {
+            replayFrom = log.rotate();
+        } finally {
+            rotation.writeLock().unlock();
+        }
+        AirportSnapshot.write(directory.resolve(SNAPSHOT_FILE), manager, replayFrom);
+        log.deleteSegmentsBefore(replayFrom);
+    }
+
+    public synchronized void scheduleSnapshots(AirportManager manager, long intervalMillis) {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "airport-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot(manager);
+            } catch (IOException e) {
+                System.err.println("Snapshot failed: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void sync() {
+        log.sync();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        log.close();
+    }
+
+    // Manager-level operations
+    // Logs the add, then makes the passenger visible through publish, so no booking of the
+    // passenger can be logged ahead of it and a snapshot never separates the two
+    public Passenger passengerAdded(Passenger passenger, Supplier<Passenger> publish) {
+        rotation.readLock().lock();
+        try {
+            passengerAdded(passenger);
+            return publish.get();
+        } finally {
+            rotation.readLock().unlock();
+        }
+    }
+
+    private void passengerAdded(Passenger passenger) {
+        append(out -> {
+            out.writeByte(ADD_PASSENGER);
+            out.writeUTF(passenger.getPassengerId());
+            out.writeUTF(passenger.getName());
+            out.writeInt(passenger.getAge());
+            out.writeUTF(passenger.getAddress());
+            out.writeDouble(passenger.getBaggageWeight());
+        });
+    }
+
+    public void passengerRemoved(String passengerId) {
+        append(out -> {
+            out.writeByte(REMOVE_PASSENGER);
+            out.writeUTF(passengerId);
+        });
+    }
+
+    public void passengerRenamed(String passengerId, String name) {
+        append(out -> {
+            out.writeByte(RENAME_PASSENGER);
+            out.writeUTF(passengerId);
+            out.writeUTF(name);
+        });
+    }
+
+    public void flightAdded(Flight flight) {
+        append(out -> {
+            out.writeByte(ADD_FLIGHT);
+            out.writeUTF(flight.getFlightCode());
+            out.writeUTF(flight.getDestination());
+            out.writeUTF(flight.getOrigin());
+            out.writeInt(flight.getTotalEconomySeats());
+            out.writeInt(flight.getTotalBusinessSeats());
+            writeTime(out, flight.getDepartureTime());
+            writeTime(out, flight.getArrivalTime());
+            writeCabins(out, flight.getCabins());
+        });
+    }
+
+    public void flightRemoved(String flightCode) {
+        append(out -> {
+            out.writeByte(REMOVE_FLIGHT);
+            out.writeUTF(flightCode);
+        });
+    }
+
+    // Flight-level operations
+    @Override
+    public void onPassengerBoarded(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass, int seat) {
+        append(out -> {
+            out.writeByte(BOARD);
+            out.writeUTF(passenger.getPassengerId());
+            out.writeUTF(flight.getFlightCode());
+            out.writeByte(ticketClass.ordinal());
+            out.writeInt(seat);
+        });
+    }
+
+    @Override
+    public void onSeatBlockChanged(Flight flight, int seat, boolean blocked) {
+        append(out -> {
+            out.writeByte(SEAT_BLOCK);
+            out.writeUTF(flight.getFlightCode());
+            out.writeInt(seat);
+            out.writeBoolean(blocked);
+        });
+    }
+
+    @Override
+    public void onPassengerRemoved(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass) {
+        append(out -> {
+            out.writeByte(UNBOARD);
+            out.writeUTF(passenger.getPassengerId());
+            out.writeUTF(flight.getFlightCode());
+        });
+    }
+
+    @Override
+    public void onStatusChanged(Flight flight, Flight.FlightStatus oldStatus, Flight.FlightStatus newStatus) {
+        append(out -> {
+            out.writeByte(STATUS);
+            out.writeUTF(flight.getFlightCode());
+            out.writeByte(newStatus.ordinal());
+        });
+    }
+
+    @Override
+    public void onRouteChanged(Flight flight, String oldOrigin, String oldDestination) {
+        append(out -> {
+            out.writeByte(ROUTE);
+            out.writeUTF(flight.getFlightCode());
+            out.writeUTF(flight.getOrigin());
+            out.writeUTF(flight.getDestination());
+        });
+    }
+
+    @Override
+    public void onScheduleChanged(Flight flight, LocalDateTime oldDeparture, LocalDateTime oldArrival) {
+        append(out -> {
+            out.writeByte(SCHEDULE);
+            out.writeUTF(flight.getFlightCode());
+            writeTime(out, flight.getDepartureTime());
+            writeTime(out, flight.getArrivalTime());
+        });
+    }
+
+    private void append(RecordWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try {
+            writer.write(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.append(bytes.toByteArray());
+    }
+
+    private static void apply(AirportManager manager, byte[] record) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+            switch (in.readByte()) {
+                case ADD_PASSENGER -> manager.restorePassenger(in.readUTF(), in.readUTF(), in.readInt(),
+                        in.readUTF(), in.readDouble());
+                case REMOVE_PASSENGER -> manager.removePassenger(in.readUTF());
+                case RENAME_PASSENGER -> manager.renamePassenger(in.readUTF(), in.readUTF());
+                case ADD_FLIGHT -> {
+                    String flightCode = in.readUTF();
+                    String destination = in.readUTF();
+                    String origin = in.readUTF();
+                    in.readInt(); // economy and business seat totals, implied by the cabins
+                    in.readInt();
+                    LocalDateTime departure = readTime(in);
+                    LocalDateTime arrival = readTime(in);
+                    List<Cabin> cabins = readCabins(in);
+                    if (manager.findFlightByCode(flightCode) == null) {
+                        Flight flight = manager.addFlight(flightCode, destination, origin, cabins);
+                        flight.setDepartureTime(departure);
+                        flight.setArrivalTime(arrival);
+                    }
+                }
+                case REMOVE_FLIGHT -> manager.removeFlight(in.readUTF());
+                case BOARD -> {
+                    Passenger passenger = manager.findPassengerById(in.readUTF());
+                    Flight flight = manager.findFlightByCode(in.readUTF());
+                    Passenger.TicketClass ticketClass = Passenger.TicketClass.values()[in.readByte()];
+                    int seat = in.readInt();
+                    if (passenger != null && flight != null) {
+                        flight.restoreBooking(passenger, ticketClass, seat);
+                    }
+                }
+                case UNBOARD -> {
+                    Passenger passenger = manager.findPassengerById(in.readUTF());
+                    Flight flight = manager.findFlightByCode(in.readUTF());
+                    if (passenger != null && flight != null) {
+                        flight.removePassenger(passenger.getPassengerId());
+                    }
+                }
+                case STATUS -> {
+                    Flight flight = manager.findFlightByCode(in.readUTF());
+                    Flight.FlightStatus status = Flight.FlightStatus.values()[in.readByte()];
+                    if (flight != null) {
+                        flight.restoreStatus(status);
+                    }
+                }
+                case ROUTE -> {
+                    Flight flight = manager.findFlightByCode(in.readUTF());
+                    String origin = in.readUTF();
+                    String destination = in.readUTF();
+                    if (flight != null) {
+                        flight.setOrigin(origin);
+                        flight.setDestination(destination);
+                    }
+                }
+                case SCHEDULE -> {
+                    Flight flight = manager.findFlightByCode(in.readUTF());
+                    LocalDateTime departure = readTime(in);
+                    LocalDateTime arrival = readTime(in);
+                    if (flight != null) {
+                        flight.setDepartureTime(departure);
+                        flight.setArrivalTime(arrival);
+                    }
+                }
+                case SEAT_BLOCK -> {
+                    Flight flight = manager.findFlightByCode(in.readUTF());
+                    int seat = in.readInt();
+                    boolean blocked = in.readBoolean();
+                    if (flight != null) {
+                        if (blocked) {
+                            flight.blockSeat(seat);
+                        } else {
+                            flight.unblockSeat(seat);
+                        }
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown journal record type");
+            }
+        } catch (EOFException e) {
+            // Records are checksummed, so a short one was written by an older format
+            throw new UncheckedIOException("Unsupported journal record format; only records with seat data are read", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt journal record", e);
+        }
+    }
+
+    static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    static LocalDateTime readTime(DataInput in) throws IOException {
+        long epochSecond = in.readLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC);
+    }
+
+    static void writeCabins(DataOutput out, List<Cabin> cabins) throws IOException {
+        out.writeShort(cabins.size());
+        for (Cabin cabin : cabins) {
+            out.writeUTF(cabin.getName());
+            out.writeByte(cabin.getTicketClass().ordinal());
+            out.writeInt(cabin.getFirstRow());
+            out.writeInt(cabin.getRows());
+            out.writeUTF(cabin.getLayout());
+            out.writeInt(cabin.getSeatCount());
+        }
+    }
+
+    static List<Cabin> readCabins(DataInput in) throws IOException {
+        int count = in.readUnsignedShort();
+        List<Cabin> cabins = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            Passenger.TicketClass ticketClass = Passenger.TicketClass.values()[in.readByte()];
+            int firstRow = in.readInt();
+            int rows = in.readInt();
+            cabins.add(new Cabin(name, ticketClass, firstRow, rows, in.readUTF(), in.readInt()));
+        }
+        return cabins;
+    }
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
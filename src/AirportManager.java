@@ -1,53 +1,227 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AirportManager {
-    private final Map<String, Passenger> passengers;
+    private final PassengerStore passengers;
     private final Map<String, Flight> flights;
+    private final PassengerNameIndex nameIndex;
+    private final RouteIndex routeIndex;
+    private final ScheduleIndex scheduleIndex;
+    private final RoutePlanner routePlanner;
+    private final FareEngine fareEngine;
+    private final BookingIndex bookingIndex;
+    private final AirportStatistics statistics;
+    private final FlightEventBus eventBus;
+    private final SeatHoldRegistry seatHolds;
+    private volatile AirportJournal journal;
+    private volatile FlightLifecycleScheduler lifecycleScheduler;
+    // Passengers from a mapped snapshot that have not been decoded yet
+    private volatile AirportSnapshot coldPassengers;
 
+    // Safe for concurrent check-in desks: no global lock, each flight guards its own seats
     public AirportManager() {
-        this.passengers = new HashMap<>();
-        this.flights = new HashMap<>();
+        this.passengers = new PassengerStore();
+        this.flights = new ConcurrentHashMap<>();
+        this.nameIndex = new PassengerNameIndex(passengers);
+        this.routeIndex = new RouteIndex();
+        this.scheduleIndex = new ScheduleIndex();
+        this.routePlanner = new RoutePlanner();
+        this.fareEngine = new FareEngine(Clock.systemDefaultZone());
+        this.bookingIndex = new BookingIndex();
+        this.statistics = new AirportStatistics();
+        this.eventBus = new FlightEventBus();
+        this.seatHolds = new SeatHoldRegistry(Clock.systemDefaultZone());
     }
 
     // Passenger Management
     public Passenger addPassenger(String name, int age, String address, double baggageWeight)
             throws IllegalArgumentException {
-        Passenger passenger = new Passenger(name, age, address, baggageWeight);
-        passengers.put(passenger.getPassengerId(), passenger);
+        // Generated IDs are monotonic, but one may still meet an ID restored from older data
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Passenger registered = register(new Passenger(name, age, address, baggageWeight));
+            if (registered != null) {
+                return registered;
+            }
+        }
+        throw new IllegalStateException("Could not allocate a unique passenger ID");
+    }
+
+    // Registers a passenger under an ID chosen by the caller, such as an imported one
+    public Passenger addPassenger(String passengerId, String name, int age, String address, double baggageWeight) {
+        if (findPassengerById(passengerId) == null) {
+            Passenger registered = register(new Passenger(passengerId, name, age, address, baggageWeight));
+            if (registered != null) {
+                return registered;
+            }
+        }
+        throw new IllegalArgumentException("Passenger with ID " + passengerId + " already exists");
+    }
+
+    // Re-creates a persisted passenger under its original ID; an existing entry wins
+    public Passenger restorePassenger(String passengerId, String name, int age, String address,
+                                      double baggageWeight) {
+        Passenger existing = findPassengerById(passengerId);
+        if (existing != null) {
+            return existing;
+        }
+        Passenger registered = register(new Passenger(passengerId, name, age, address, baggageWeight));
+        return registered != null ? registered : findPassengerById(passengerId);
+    }
+
+    // Copies a standalone passenger into the store; returns its view, or null if the ID is taken
+    private Passenger register(Passenger detached) {
+        // The ID is claimed before anything is logged, so only the add that wins it is journaled
+        long id = detached.getNumericId();
+        int slot = passengers.reserve(id, detached.getPassengerId(), detached.getName(), detached.getAge(),
+                detached.getAddress(), detached.getBaggageWeight(), detached.getTicketClass());
+        if (slot < 0) {
+            return null;
+        }
+        Passenger passenger;
+        AirportJournal currentJournal = journal;
+        if (currentJournal == null) {
+            passenger = passengers.publish(slot, id);
+        } else {
+            try {
+                passenger = currentJournal.passengerAdded(detached, () -> passengers.publish(slot, id));
+            } catch (RuntimeException e) {
+                passengers.discard(slot, id);
+                throw e;
+            }
+        }
+        nameIndex.add(passenger.getSlot(), detached.getName());
         return passenger;
     }
 
+    // IDs match by numeric value, whatever their case or leading zeros. Every ID taken from a
+    // caller is resolved to the registered passenger's own ID text before it reaches the
+    // bookings, waitlists or journal, which are all keyed by that text.
     public Passenger findPassengerById(String passengerId) {
-        return passengers.get(passengerId);
+        Passenger passenger = passengers.find(PassengerIdGenerator.parse(passengerId));
+        if (passenger != null) {
+            return passenger;
+        }
+        AirportSnapshot cold = coldPassengers;
+        if (cold == null) {
+            return null;
+        }
+        int slot = cold.findPassenger(passengerId);
+        return slot >= 0 ? materialize(cold, slot) : null;
     }
 
     public List<Passenger> findPassengersByName(String name) {
-        return passengers.values().stream()
-                .filter(p -> p.getName().toLowerCase().contains(name.toLowerCase()))
-                .collect(Collectors.toList());
+        materializeAll();
+        return nameIndex.search(name);
     }
 
     public List<Passenger> getAllPassengers() {
-        return new ArrayList<>(passengers.values());
+        materializeAll();
+        return passengers.views();
+    }
+
+    public int getPassengerCount() {
+        AirportSnapshot cold = coldPassengers;
+        return passengers.size() + (cold != null ? cold.getColdPassengerCount() : 0);
     }
 
     public boolean removePassenger(String passengerId) {
-        // First remove from all flights
-        for (Flight flight : flights.values()) {
-            flight.removePassenger(passengerId);
+        String registeredId = registeredId(passengerId);
+        long id = PassengerIdGenerator.parse(registeredId);
+        Passenger hot = passengers.find(id);
+        // Unregister first so no new booking can stick, then clear the bookings already made
+        if (hot != null && passengers.remove(id)) {
+            nameIndex.remove(hot.getSlot());
+        } else if (!removeCold(registeredId)) {
+            return false;
+        }
+        cancelBookings(registeredId);
+        AirportJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.passengerRemoved(registeredId);
         }
-        return passengers.remove(passengerId) != null;
+        return true;
+    }
+
+    // Name changes go through the manager so the name index and the journal follow them
+    public boolean renamePassenger(String passengerId, String name) {
+        Passenger passenger = findPassengerById(passengerId);
+        if (passenger == null) {
+            return false;
+        }
+        passenger.setName(name);
+        nameIndex.add(passenger.getSlot(), name);
+        AirportJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.passengerRenamed(passenger.getPassengerId(), name);
+        }
+        return true;
+    }
+
+    public List<Flight> findBookings(String passengerId) {
+        return bookingIndex.findFlights(registeredId(passengerId));
+    }
+
+    public int cancelBookings(String passengerId) {
+        int cancelled = 0;
+        passengerId = registeredId(passengerId);
+        for (Flight flight : bookingIndex.findFlights(passengerId)) {
+            if (flight.removePassenger(passengerId)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
     }
 
     // Flight Management
     public Flight addFlight(String flightCode, String destination, String origin,
                             int economySeats, int businessSeats) {
+        return addFlight(flightCode, destination, origin, Cabin.standardLayout(economySeats, businessSeats));
+    }
+
+    public Flight addFlight(String flightCode, String destination, String origin, List<Cabin> cabins) {
         if (flights.containsKey(flightCode.toUpperCase())) {
             throw new IllegalArgumentException("Flight with code " + flightCode + " already exists");
         }
-        Flight flight = new Flight(flightCode, destination, origin, economySeats, businessSeats);
-        flights.put(flight.getFlightCode(), flight);
+        Flight flight = new Flight(flightCode, destination, origin, cabins);
+        // Wire everything up before the code becomes visible, so no booking can slip past the listeners
+        if (flights.computeIfAbsent(flight.getFlightCode(), code -> register(flight)) != flight) {
+            throw new IllegalArgumentException("Flight with code " + flightCode + " already exists");
+        }
+        return flight;
+    }
+
+    private Flight register(Flight flight) {
+        synchronized (flight) {
+            AirportJournal currentJournal = journal;
+            if (currentJournal != null) {
+                currentJournal.flightAdded(flight);
+                flight.addListener(currentJournal);
+            }
+            flight.addListener(routeIndex);
+            flight.addListener(scheduleIndex);
+            flight.addListener(routePlanner);
+            flight.addListener(fareEngine);
+            flight.addListener(bookingIndex);
+            flight.addListener(statistics);
+            flight.addListener(eventBus);
+            routeIndex.add(flight);
+            scheduleIndex.add(flight);
+            routePlanner.add(flight);
+            fareEngine.add(flight);
+            statistics.flightAdded(flight);
+            FlightLifecycleScheduler currentScheduler = lifecycleScheduler;
+            if (currentScheduler != null) {
+                flight.addListener(currentScheduler);
+                currentScheduler.track(flight);
+            }
+        }
         return flight;
     }
 
@@ -56,17 +230,210 @@ public class AirportManager {
     }
 
     public List<Flight> findFlightsByDestination(String destination) {
-        return flights.values().stream()
-                .filter(f -> f.getDestination().toLowerCase().contains(destination.toLowerCase()))
-                .collect(Collectors.toList());
+        return routeIndex.findByDestinationContaining(destination);
+    }
+
+    public List<Flight> findFlightsByOrigin(String origin) {
+        return routeIndex.findByOrigin(origin);
+    }
+
+    public List<Flight> findFlightsByRoute(String origin, String destination) {
+        return routeIndex.findByRoute(origin, destination);
     }
 
     public List<Flight> getAllFlights() {
         return new ArrayList<>(flights.values());
     }
 
+    public int getFlightCount() {
+        return flights.size();
+    }
+
+    // Departure board queries; a null status matches flights in any state
+    public List<Flight> findFlightsDepartingBetween(LocalDateTime from, LocalDateTime to,
+                                                    Flight.FlightStatus status) {
+        return scheduleIndex.findDepartingBetween(from, to, status);
+    }
+
+    public List<Flight> findFlightsArrivingBetween(LocalDateTime from, LocalDateTime to,
+                                                   Flight.FlightStatus status) {
+        return scheduleIndex.findArrivingBetween(from, to, status);
+    }
+
+    public List<Flight> findNextDepartures(LocalDateTime from, int limit, Flight.FlightStatus status) {
+        return scheduleIndex.findNextDepartures(from, limit, status);
+    }
+
+    public List<Flight> findNextArrivals(LocalDateTime from, int limit, Flight.FlightStatus status) {
+        return scheduleIndex.findNextArrivals(from, limit, status);
+    }
+
+    // Connection search: flights to take, in order, or an empty list. A null arriveBy means no
+    // deadline; a null ticketClass skips the check for seats free in that class.
+    public List<Flight> findEarliestRoute(String origin, String destination, LocalDateTime departAfter,
+                                          LocalDateTime arriveBy, Duration minConnection,
+                                          Passenger.TicketClass ticketClass, int seats) {
+        return routePlanner.findEarliestArrival(origin, destination, departAfter, arriveBy, minConnection,
+                ticketClass, seats);
+    }
+
+    public List<Flight> findFewestLegsRoute(String origin, String destination, LocalDateTime departAfter,
+                                            LocalDateTime arriveBy, Duration minConnection,
+                                            Passenger.TicketClass ticketClass, int seats) {
+        return routePlanner.findFewestLegs(origin, destination, departAfter, arriveBy, minConnection,
+                ticketClass, seats);
+    }
+
+    // Pricing: current fare for one seat, from the flight's base fare, cabin, occupancy and time to departure
+    public double quoteFare(String flightCode, Passenger.TicketClass ticketClass) {
+        return fareEngine.quote(requireFlight(flightCode), ticketClass);
+    }
+
+    public void setBaseFare(String flightCode, double baseFare) {
+        fareEngine.setBaseFare(requireFlight(flightCode), baseFare);
+    }
+
+    public double getBaseFare(String flightCode) {
+        return fareEngine.getBaseFare(requireFlight(flightCode));
+    }
+
     public boolean removeFlight(String flightCode) {
-        return flights.remove(flightCode.toUpperCase()) != null;
+        Flight removed = flights.remove(flightCode.toUpperCase());
+        if (removed == null) {
+            return false;
+        }
+        // Route and schedule setters notify under the flight's monitor, so this cannot race with a re-index
+        synchronized (removed) {
+            removed.removeListener(routeIndex);
+            removed.removeListener(scheduleIndex);
+            removed.removeListener(routePlanner);
+            removed.removeListener(fareEngine);
+            removed.removeListener(bookingIndex);
+            removed.removeListener(statistics);
+            removed.removeListener(eventBus);
+            FlightLifecycleScheduler currentScheduler = lifecycleScheduler;
+            if (currentScheduler != null) {
+                removed.removeListener(currentScheduler);
+                currentScheduler.untrack(removed);
+            }
+            routeIndex.remove(removed);
+            scheduleIndex.remove(removed);
+            routePlanner.remove(removed);
+            fareEngine.remove(removed);
+            bookingIndex.removeFlight(removed);
+            statistics.flightRemoved(removed);
+            AirportJournal currentJournal = journal;
+            if (currentJournal != null) {
+                removed.removeListener(currentJournal);
+                currentJournal.flightRemoved(removed.getFlightCode());
+            }
+        }
+        return true;
+    }
+
+    // Lazy snapshot loading: passengers are decoded from the mapping on first access
+    void attachColdPassengers(AirportSnapshot snapshot) {
+        this.coldPassengers = snapshot.getPassengerCount() > 0 ? snapshot : null;
+    }
+
+    // The snapshot writer copies cold passengers straight from the mapping instead of decoding them
+    AirportSnapshot getColdPassengers() {
+        return coldPassengers;
+    }
+
+    List<Passenger> getLoadedPassengers() {
+        return passengers.views();
+    }
+
+    private Passenger materialize(AirportSnapshot cold, int slot) {
+        Passenger decoded = cold.claim(slot);
+        if (decoded == null) {
+            // Another thread is decoding it, or it was removed before ever being loaded
+            cold.awaitSettled(slot);
+            return passengers.find(PassengerIdGenerator.parse(cold.readPassengerId(slot)));
+        }
+        Passenger passenger = passengers.add(decoded.getNumericId(), decoded.getPassengerId(), decoded.getName(),
+                decoded.getAge(),
+                decoded.getAddress(), decoded.getBaggageWeight(), decoded.getTicketClass());
+        if (passenger != null) {
+            nameIndex.add(passenger.getSlot(), decoded.getName());
+        } else {
+            passenger = passengers.find(decoded.getNumericId());
+        }
+        cold.loaded(slot);
+        return passenger;
+    }
+
+    private boolean removeCold(String passengerId) {
+        AirportSnapshot cold = coldPassengers;
+        if (cold == null) {
+            return false;
+        }
+        int slot = cold.findPassenger(passengerId);
+        return slot >= 0 && cold.remove(slot);
+    }
+
+    // The registered passenger's own ID text, or the argument if nobody has that ID; a cold
+    // snapshot passenger is looked up without being decoded
+    private String registeredId(String passengerId) {
+        Passenger passenger = passengers.find(PassengerIdGenerator.parse(passengerId));
+        if (passenger != null) {
+            return passenger.getPassengerId();
+        }
+        AirportSnapshot cold = coldPassengers;
+        int slot = cold != null ? cold.findPassenger(passengerId) : -1;
+        return slot >= 0 ? cold.readPassengerId(slot) : passengerId;
+    }
+
+    // Whole-registry operations need every passenger decoded; after that the mapping is dropped
+    private void materializeAll() {
+        AirportSnapshot cold = coldPassengers;
+        if (cold == null) {
+            return;
+        }
+        for (int slot = 0; slot < cold.getPassengerCount(); slot++) {
+            materialize(cold, slot);
+        }
+        coldPassengers = null;
+    }
+
+    // Status changes, boardings and removals on every managed flight, delivered asynchronously
+    public FlightEventBus getEventBus() {
+        return eventBus;
+    }
+
+    // Persistence: mutations from here on are appended to the journal
+    public void setJournal(AirportJournal journal) {
+        AirportJournal previous = this.journal;
+        this.journal = journal;
+        for (Flight flight : flights.values()) {
+            synchronized (flight) {
+                if (previous != null) {
+                    flight.removeListener(previous);
+                }
+                if (journal != null) {
+                    flight.addListener(journal);
+                }
+            }
+        }
+    }
+
+    // Automatic status changes: every flight from here on follows its departure and arrival times
+    public void setLifecycleScheduler(FlightLifecycleScheduler scheduler) {
+        FlightLifecycleScheduler previous = this.lifecycleScheduler;
+        this.lifecycleScheduler = scheduler;
+        for (Flight flight : flights.values()) {
+            synchronized (flight) {
+                if (previous != null) {
+                    flight.removeListener(previous);
+                    previous.untrack(flight);
+                }
+                if (scheduler != null) {
+                    flight.addListener(scheduler);
+                    scheduler.track(flight);
+                }
+            }
+        }
     }
 
     // Boarding Operations
@@ -85,6 +452,259 @@ public class AirportManager {
         return flight.boardPassenger(passenger, ticketClass);
     }
 
+    // Boards many passengers at once; requests are grouped per flight so each flight is looked up,
+    // status-checked and seat-claimed once per group. Results come back in request order.
+    public List<BoardingResult> boardAll(Collection<BoardingRequest> requests) {
+        List<BoardingRequest> ordered = new ArrayList<>(requests);
+        BoardingResult.Outcome[] outcomes = new BoardingResult.Outcome[ordered.size()];
+
+        Map<String, List<Integer>> byFlight = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            byFlight.computeIfAbsent(ordered.get(i).getFlightCode().toUpperCase(), k -> new ArrayList<>()).add(i);
+        }
+
+        for (Map.Entry<String, List<Integer>> group : byFlight.entrySet()) {
+            Flight flight = flights.get(group.getKey());
+            List<Integer> indexes = group.getValue();
+            if (flight == null) {
+                for (int index : indexes) {
+                    outcomes[index] = BoardingResult.Outcome.FLIGHT_NOT_FOUND;
+                }
+                continue;
+            }
+
+            List<Integer> found = new ArrayList<>(indexes.size());
+            List<Passenger> groupPassengers = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                Passenger passenger = findPassengerById(ordered.get(index).getPassengerId());
+                if (passenger == null) {
+                    outcomes[index] = BoardingResult.Outcome.PASSENGER_NOT_FOUND;
+                } else {
+                    found.add(index);
+                    groupPassengers.add(passenger);
+                }
+            }
+
+            Passenger.TicketClass[] classes = new Passenger.TicketClass[found.size()];
+            for (int i = 0; i < classes.length; i++) {
+                classes[i] = ordered.get(found.get(i)).getTicketClass();
+            }
+            BoardingResult.Outcome[] groupOutcomes = flight.boardAll(groupPassengers.toArray(new Passenger[0]), classes);
+            for (int i = 0; i < groupOutcomes.length; i++) {
+                outcomes[found.get(i)] = groupOutcomes[i];
+            }
+        }
+
+        List<BoardingResult> results = new ArrayList<>(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            results.add(new BoardingResult(ordered.get(i), outcomes[i]));
+        }
+        return results;
+    }
+
+    // Boards a party of one cabin class on one flight, seated side by side where a row allows
+    public List<BoardingResult> boardTogether(List<String> passengerIds, String flightCode,
+                                              Passenger.TicketClass ticketClass) {
+        Flight flight = findFlightByCode(flightCode);
+        if (flight == null) {
+            throw new IllegalArgumentException("Flight not found: " + flightCode);
+        }
+        Passenger[] party = new Passenger[passengerIds.size()];
+        for (int i = 0; i < party.length; i++) {
+            party[i] = findPassengerById(passengerIds.get(i));
+            if (party[i] == null) {
+                throw new IllegalArgumentException("Passenger not found: " + passengerIds.get(i));
+            }
+        }
+
+        BoardingResult.Outcome[] outcomes = flight.boardTogether(party, ticketClass);
+        List<BoardingResult> results = new ArrayList<>(party.length);
+        for (int i = 0; i < party.length; i++) {
+            results.add(new BoardingResult(new BoardingRequest(passengerIds.get(i), flightCode, ticketClass),
+                    outcomes[i]));
+        }
+        return results;
+    }
+
+    // Boards now if the cabin has room, otherwise waits for the next free seat; higher priority goes first
+    public BoardingResult.Outcome boardOrWaitlist(String passengerId, String flightCode,
+                                                  Passenger.TicketClass ticketClass, int priority) {
+        Passenger passenger = findPassengerById(passengerId);
+        if (passenger == null) {
+            throw new IllegalArgumentException("Passenger not found: " + passengerId);
+        }
+
+        Flight flight = findFlightByCode(flightCode);
+        if (flight == null) {
+            throw new IllegalArgumentException("Flight not found: " + flightCode);
+        }
+
+        return flight.boardOrWaitlist(passenger, ticketClass, priority);
+    }
+
+    // Cancels one booking; the freed seat goes to the cabin's waitlist
+    public boolean unboardPassenger(String passengerId, String flightCode) {
+        return requireFlight(flightCode).removePassenger(registeredId(passengerId));
+    }
+
+    public boolean leaveWaitlist(String passengerId, String flightCode) {
+        Flight flight = findFlightByCode(flightCode);
+        if (flight == null) {
+            throw new IllegalArgumentException("Flight not found: " + flightCode);
+        }
+        return flight.leaveWaitlist(registeredId(passengerId));
+    }
+
+    // Books every passenger on every leg, or nobody. Seats are claimed first with the same
+    // lock-free CAS as single boarding, leg by leg, and only committed once all are claimed; any
+    // failure hands the claims back. No flight monitor is taken, so concurrent itineraries over
+    // the same flights in any order cannot deadlock, and per-flight boarding never waits.
+    // Legs must connect: each departs where the previous one arrives, no earlier than its arrival.
+    public ItineraryResult bookItinerary(List<String> passengerIds, List<String> flightCodes,
+                                         Passenger.TicketClass ticketClass) {
+        if (passengerIds.isEmpty() || flightCodes.isEmpty()) {
+            throw new IllegalArgumentException("An itinerary needs at least one passenger and one flight");
+        }
+        Passenger[] party = new Passenger[passengerIds.size()];
+        Set<String> seenPassengers = new HashSet<>();
+        for (int i = 0; i < party.length; i++) {
+            party[i] = findPassengerById(passengerIds.get(i));
+            if (party[i] == null) {
+                return ItineraryResult.failed(BoardingResult.Outcome.PASSENGER_NOT_FOUND, null, passengerIds.get(i));
+            }
+            if (!seenPassengers.add(party[i].getPassengerId())) {
+                throw new IllegalArgumentException("Passenger listed twice: " + passengerIds.get(i));
+            }
+        }
+        Flight[] legs = new Flight[flightCodes.size()];
+        for (int i = 0; i < legs.length; i++) {
+            legs[i] = findFlightByCode(flightCodes.get(i));
+            if (legs[i] == null) {
+                return ItineraryResult.failed(BoardingResult.Outcome.FLIGHT_NOT_FOUND, flightCodes.get(i), null);
+            }
+            if (i > 0) {
+                checkConnection(legs[i - 1], legs[i]);
+            }
+        }
+
+        // Phase 1: claim a seat for everyone on every leg
+        int[][] seats = new int[legs.length][party.length];
+        for (int leg = 0; leg < legs.length; leg++) {
+            for (int i = 0; i < party.length; i++) {
+                BoardingResult.Outcome failure = null;
+                try {
+                    seats[leg][i] = legs[leg].holdSeat(party[i], ticketClass);
+                    if (seats[leg][i] < 0) {
+                        failure = BoardingResult.Outcome.NO_SEAT_AVAILABLE;
+                    }
+                } catch (IllegalStateException e) {
+                    failure = legs[leg].getBookedClass(party[i].getPassengerId()) != null
+                            ? BoardingResult.Outcome.ALREADY_BOARDED : BoardingResult.Outcome.FLIGHT_NOT_BOARDING;
+                }
+                if (failure != null) {
+                    releaseClaims(legs, party, seats, ticketClass, leg, i);
+                    return ItineraryResult.failed(failure, legs[leg].getFlightCode(), party[i].getPassengerId());
+                }
+            }
+        }
+
+        // Phase 2: commit; a leg can still close or a passenger board elsewhere in between
+        for (int leg = 0; leg < legs.length; leg++) {
+            for (int i = 0; i < party.length; i++) {
+                if (!legs[leg].confirmHeldSeat(party[i], ticketClass, seats[leg][i])) {
+                    Flight.FlightStatus status = legs[leg].getStatus();
+                    BoardingResult.Outcome failure;
+                    if (!party[i].isRegistered()) {
+                        failure = BoardingResult.Outcome.PASSENGER_NOT_FOUND;
+                    } else if (status == Flight.FlightStatus.SCHEDULED || status == Flight.FlightStatus.BOARDING) {
+                        failure = BoardingResult.Outcome.ALREADY_BOARDED;
+                    } else {
+                        failure = BoardingResult.Outcome.FLIGHT_NOT_BOARDING;
+                    }
+                    // Undo the committed bookings, then hand back the claims not yet committed
+                    for (int done = 0; done < leg * party.length + i; done++) {
+                        legs[done / party.length].removePassenger(party[done % party.length].getPassengerId());
+                    }
+                    for (int rest = leg * party.length + i + 1; rest < legs.length * party.length; rest++) {
+                        int restLeg = rest / party.length;
+                        legs[restLeg].releaseHeldSeat(ticketClass, seats[restLeg][rest % party.length]);
+                    }
+                    return ItineraryResult.failed(failure, legs[leg].getFlightCode(), party[i].getPassengerId());
+                }
+            }
+        }
+        return ItineraryResult.booked();
+    }
+
+    private static void checkConnection(Flight arriving, Flight departing) {
+        if (arriving == departing) {
+            throw new IllegalArgumentException("Flight listed twice: " + arriving.getFlightCode());
+        }
+        if (!arriving.getDestination().equalsIgnoreCase(departing.getOrigin())) {
+            throw new IllegalArgumentException("Flight " + departing.getFlightCode() + " does not depart from "
+                    + arriving.getDestination());
+        }
+        if (departing.getDepartureTime().isBefore(arriving.getArrivalTime())) {
+            throw new IllegalArgumentException("Flight " + departing.getFlightCode() + " departs before "
+                    + arriving.getFlightCode() + " arrives");
+        }
+    }
+
+    // Hands back every claim made before position (leg, index)
+    private static void releaseClaims(Flight[] legs, Passenger[] party, int[][] seats,
+                                      Passenger.TicketClass ticketClass, int leg, int index) {
+        for (int done = 0; done < leg * party.length + index; done++) {
+            int doneLeg = done / party.length;
+            legs[doneLeg].releaseHeldSeat(ticketClass, seats[doneLeg][done % party.length]);
+        }
+    }
+
+    // Reserves a seat for ttl while the customer pays; null if the cabin is full
+    public SeatHold holdSeat(String passengerId, String flightCode, Passenger.TicketClass ticketClass,
+                             Duration ttl) {
+        Passenger passenger = findPassengerById(passengerId);
+        if (passenger == null) {
+            throw new IllegalArgumentException("Passenger not found: " + passengerId);
+        }
+
+        Flight flight = findFlightByCode(flightCode);
+        if (flight == null) {
+            throw new IllegalArgumentException("Flight not found: " + flightCode);
+        }
+
+        // Expiry runs in the background once the first hold exists
+        seatHolds.start();
+        return seatHolds.hold(flight, passenger, ticketClass, ttl);
+    }
+
+    public boolean confirmHold(String holdId) {
+        return seatHolds.confirm(requireHold(holdId));
+    }
+
+    public boolean releaseHold(String holdId) {
+        return seatHolds.release(requireHold(holdId));
+    }
+
+    public SeatHoldRegistry getSeatHolds() {
+        return seatHolds;
+    }
+
+    private Flight requireFlight(String flightCode) {
+        Flight flight = findFlightByCode(flightCode);
+        if (flight == null) {
+            throw new IllegalArgumentException("Flight not found: " + flightCode);
+        }
+        return flight;
+    }
+
+    private SeatHold requireHold(String holdId) {
+        SeatHold hold = seatHolds.find(holdId);
+        if (hold == null) {
+            throw new IllegalArgumentException("No active seat hold: " + holdId);
+        }
+        return hold;
+    }
+
     public boolean boardPassengerByName(String passengerName, String flightCode,
                                         Passenger.TicketClass ticketClass) {
         List<Passenger> matchingPassengers = findPassengersByName(passengerName);
@@ -106,77 +726,67 @@ public class AirportManager {
             System.out.println("Flight not found: " + flightCode);
             return;
         }
+        printReport(report -> report.writeManifest(flight));
+    }
 
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("FLIGHT MANIFEST");
-        System.out.println("=".repeat(60));
-        System.out.println(flight.getFlightInfo());
-        System.out.println("-".repeat(60));
+    public void printAllManifests() {
+        printReport(report -> report.writeManifests(flights.values()));
+    }
 
-        List<Passenger> passengerList = flight.getPassengerList();
-        if (passengerList.isEmpty()) {
-            System.out.println("No passengers boarded yet.");
-        } else {
-            System.out.println("PASSENGER LIST:");
+    public void printAllFlights() {
+        printReport(report -> report.writeFlights(flights.values()));
+    }
 
-            // Separate by class
-            List<Passenger> businessPassengers = passengerList.stream()
-                    .filter(p -> p.getTicketClass() == Passenger.TicketClass.BUSINESS)
-                    .collect(Collectors.toList());
+    public void writeManifests(Writer out, ReportWriter.Format format) throws IOException {
+        ReportWriter report = new ReportWriter(out, format);
+        report.writeManifests(flights.values());
+        report.flush();
+    }
 
-            List<Passenger> economyPassengers = passengerList.stream()
-                    .filter(p -> p.getTicketClass() == Passenger.TicketClass.ECONOMY)
-                    .collect(Collectors.toList());
+    public void writeFlights(Writer out, ReportWriter.Format format) throws IOException {
+        ReportWriter report = new ReportWriter(out, format);
+        report.writeFlights(flights.values());
+        report.flush();
+    }
 
-            if (!businessPassengers.isEmpty()) {
-                System.out.println("\nBusiness Class:");
-                businessPassengers.forEach(p -> System.out.println("  • " + p));
-            }
+    public void writeStatistics(Writer out, ReportWriter.Format format) throws IOException {
+        ReportWriter report = new ReportWriter(out, format);
+        report.writeStatistics(this);
+        report.flush();
+    }
 
-            if (!economyPassengers.isEmpty()) {
-                System.out.println("\nEconomy Class:");
-                economyPassengers.forEach(p -> System.out.println("  • " + p));
-            }
+    // Console reports go through one buffered writer and reach System.out in a few large writes
+    private void printReport(Report body) {
+        try {
+            ReportWriter report = new ReportWriter(new OutputStreamWriter(System.out, System.out.charset()),
+                    ReportWriter.Format.TEXT);
+            body.write(report);
+            report.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        System.out.println("=".repeat(60));
     }
 
-    public void printAllFlights() {
-        if (flights.isEmpty()) {
-            System.out.println("No flights scheduled.");
-            return;
-        }
+    private interface Report {
+        void write(ReportWriter report) throws IOException;
+    }
 
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("ALL SCHEDULED FLIGHTS");
-        System.out.println("=".repeat(60));
+    public AirportStatistics getStatistics() {
+        return statistics;
+    }
+
+    // Passenger aggregates are columnar scans; cold snapshot passengers are decoded first
+    public double getAveragePassengerAge() {
+        materializeAll();
+        return passengers.getAverageAge();
+    }
 
-        flights.values().forEach(flight -> {
-            System.out.println(flight.getFlightInfo());
-            System.out.println("Passengers: " + flight.getTotalPassengers());
-            System.out.println("-".repeat(60));
-        });
+    public double getTotalBaggageWeight() {
+        materializeAll();
+        return passengers.getTotalBaggageWeight();
     }
 
     public void printAirportStatistics() {
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("AIRPORT STATISTICS");
-        System.out.println("=".repeat(60));
-        System.out.println("Total Registered Passengers: " + passengers.size());
-        System.out.println("Total Scheduled Flights: " + flights.size());
-
-        if (!flights.isEmpty()) {
-            int totalPassengersOnFlights = flights.values().stream()
-                    .mapToInt(Flight::getTotalPassengers)
-                    .sum();
-            double avgOccupancy = flights.values().stream()
-                    .mapToDouble(Flight::getOccupancyRate)
-                    .average()
-                    .orElse(0);
-
-            System.out.println("Total Passengers Boarded: " + totalPassengersOnFlights);
-            System.out.printf("Average Flight Occupancy: %.1f%%\n", avgOccupancy);
-        }
-        System.out.println("=".repeat(60));
+        printReport(report -> report.writeStatistics(this));
     }
 }
\ No newline at end of file
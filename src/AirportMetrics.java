@@ -0,0 +1,241 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Per-operation counters and latency histograms for AirportManager calls.
+// Recording a call costs two System.nanoTime() reads plus a few uncontended atomic adds;
+// errors additionally bump a per-exception-type counter. When disabled, start() returns
+// a sentinel and nothing is timed or counted.
+public class AirportMetrics implements AirportMetricsMBean {
+    public static final String OBJECT_NAME = "airport:type=AirportMetrics";
+
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    public enum Operation {
+        ADD_PASSENGER("addPassenger"),
+        REMOVE_PASSENGER("removePassenger"),
+        FIND_PASSENGERS_BY_NAME("findPassengersByName"),
+        ADD_FLIGHT("addFlight"),
+        REMOVE_FLIGHT("removeFlight"),
+        FIND_FLIGHTS_BY_DESTINATION("findFlightsByDestination"),
+        BOARD_PASSENGER("boardPassenger"),
+        BOARD_ALL("boardAll"),
+        BOARD_TOGETHER("boardTogether"),
+        RENAME_PASSENGER("renamePassenger"),
+        CANCEL_BOOKINGS("cancelBookings"),
+        BOARD_OR_WAITLIST("boardOrWaitlist"),
+        UNBOARD_PASSENGER("unboardPassenger"),
+        LEAVE_WAITLIST("leaveWaitlist"),
+        BOOK_ITINERARY("bookItinerary"),
+        HOLD_SEAT("holdSeat"),
+        CONFIRM_HOLD("confirmHold"),
+        RELEASE_HOLD("releaseHold");
+
+        private final String displayName;
+
+        Operation(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final Stats[] stats;
+    private final LongAdder[] cabinFull;
+    private volatile boolean enabled;
+
+    public AirportMetrics() {
+        this.stats = new Stats[Operation.values().length];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new Stats();
+        }
+        this.cabinFull = new LongAdder[Passenger.TicketClass.values().length];
+        for (int i = 0; i < cabinFull.length; i++) {
+            cabinFull[i] = new LongAdder();
+        }
+        this.enabled = true;
+    }
+
+    public long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    public void success(Operation operation, long start) {
+        if (start != DISABLED) {
+            Stats s = stats[operation.ordinal()];
+            s.latency.record(System.nanoTime() - start);
+        }
+    }
+
+    public void failure(Operation operation, long start, Throwable error) {
+        if (start != DISABLED) {
+            Stats s = stats[operation.ordinal()];
+            s.latency.record(System.nanoTime() - start);
+            s.errors.increment();
+            s.errorsByType.computeIfAbsent(error.getClass().getSimpleName(), k -> new LongAdder()).increment();
+        }
+    }
+
+    // Boarding that returned false because the requested cabin had no seat left
+    public void cabinFull(Passenger.TicketClass ticketClass, long start) {
+        if (start != DISABLED) {
+            cabinFull[ticketClass.ordinal()].increment();
+        }
+    }
+
+    public LatencyHistogram getLatency(Operation operation) {
+        return stats[operation.ordinal()].latency;
+    }
+
+    public long getCabinFullCount(Passenger.TicketClass ticketClass) {
+        return cabinFull[ticketClass.ordinal()].sum();
+    }
+
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register metrics MBean", e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public String[] getOperations() {
+        Operation[] operations = Operation.values();
+        String[] names = new String[operations.length];
+        for (int i = 0; i < operations.length; i++) {
+            names[i] = operations[i].getDisplayName();
+        }
+        return names;
+    }
+
+    @Override
+    public long getTotalCount() {
+        long total = 0;
+        for (Stats s : stats) {
+            total += s.latency.getCount();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalErrorCount() {
+        long total = 0;
+        for (Stats s : stats) {
+            total += s.errors.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getCabinFullCount() {
+        long total = 0;
+        for (LongAdder adder : cabinFull) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getCount(String operation) {
+        return statsFor(operation).latency.getCount();
+    }
+
+    @Override
+    public long getErrorCount(String operation) {
+        return statsFor(operation).errors.sum();
+    }
+
+    @Override
+    public double getP50Micros(String operation) {
+        return statsFor(operation).latency.getPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros(String operation) {
+        return statsFor(operation).latency.getPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros(String operation) {
+        return statsFor(operation).latency.getPercentile(99.9) / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        for (Stats s : stats) {
+            s.latency.reset();
+            s.errors.reset();
+            s.errorsByType.clear();
+        }
+        for (LongAdder adder : cabinFull) {
+            adder.reset();
+        }
+    }
+
+    // Plain-text dump: one row per operation that has been called, then errors and rejections
+    @Override
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-26s %10s %8s %10s %10s %10s %10s%n",
+                "Operation", "count", "errors", "p50 µs", "p99 µs", "p999 µs", "max µs"));
+        for (Operation operation : Operation.values()) {
+            Stats s = stats[operation.ordinal()];
+            long count = s.latency.getCount();
+            if (count == 0) {
+                continue;
+            }
+            sb.append(String.format("%-26s %10d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                    operation.getDisplayName(), count, s.errors.sum(),
+                    s.latency.getPercentile(50) / 1000.0, s.latency.getPercentile(99) / 1000.0,
+                    s.latency.getPercentile(99.9) / 1000.0, s.latency.getMax() / 1000.0));
+        }
+        for (Operation operation : Operation.values()) {
+            for (Map.Entry<String, LongAdder> entry : stats[operation.ordinal()].errorsByType.entrySet()) {
+                sb.append(String.format("  %s failed with %s: %d%n",
+                        operation.getDisplayName(), entry.getKey(), entry.getValue().sum()));
+            }
+        }
+        sb.append("Boarding rejected, cabin full:");
+        for (Passenger.TicketClass ticketClass : Passenger.TicketClass.values()) {
+            sb.append(' ').append(ticketClass.getName()).append(' ').append(getCabinFullCount(ticketClass));
+        }
+        return sb.append(System.lineSeparator()).toString();
+    }
+
+    private Stats statsFor(String operation) {
+        for (Operation candidate : Operation.values()) {
+            if (candidate.getDisplayName().equalsIgnoreCase(operation) || candidate.name().equalsIgnoreCase(operation)) {
+                return stats[candidate.ordinal()];
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + operation);
+    }
+
+    private static final class Stats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,29 @@
+// JMX view of AirportMetrics, registered as airport:type=AirportMetrics.
+// Operation names are those listed by getOperations(), e.g. "boardPassenger".
+public interface AirportMetricsMBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    String[] getOperations();
+
+    long getTotalCount();
+
+    long getTotalErrorCount();
+
+    long getCabinFullCount();
+
+    String getReport();
+
+    long getCount(String operation);
+
+    long getErrorCount(String operation);
+
+    double getP50Micros(String operation);
+
+    double getP99Micros(String operation);
+
+    double getP999Micros(String operation);
+
+    void reset();
+}
@@ -0,0 +1,208 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Headless line-based service: each request is one AirportCommands line, each response one
+// JSON line ({"ok":true,"result":...} or {"ok":false,"error":"..."}). Every connection runs on
+// its own virtual thread, so connections are served concurrently while requests within one
+// connection execute in order; clients may pipeline requests without waiting for responses.
+// A thread per connection rather than per request is deliberate: it is what keeps pipelined
+// responses in request order without any reordering buffer. Request lines are capped at
+// MAX_LINE_CHARS; a longer line is skipped and answered with an error.
+// close() stops accepting, lets each connection finish the requests it has already read and
+// write their responses, then closes the connections.
+public class AirportServer implements Closeable {
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+    private static final int MAX_LINE_CHARS = 16 * 1024;
+
+    private final AirportCommands commands;
+    private final ServerSocket serverSocket;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    public AirportServer(AirportManager manager, int port) throws IOException {
+        this(new AirportCommands(manager), port);
+    }
+
+    // Binds to the loopback address; port 0 picks a free port (see getPort)
+    public AirportServer(AirportCommands commands, int port) throws IOException {
+        this.commands = commands;
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        this.acceptor = Thread.ofVirtual().name("airport-server-acceptor").start(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                connections.add(connection);
+                if (closed) {
+                    connection.shutdown();
+                }
+                connection.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Server accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private String handle(String line) {
+        StringBuilder sb = new StringBuilder(96);
+        try {
+            List<String> tokens = CommandTokenizer.tokenize(line);
+            String result = commands.execute(tokens);
+            sb.append("{\"ok\":true,\"result\":").append(result).append('}');
+        } catch (RuntimeException e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            sb.append("{\"ok\":false,\"error\":");
+            ReportWriter.appendJson(sb, message).append('}');
+        }
+        return sb.toString();
+    }
+
+    // Stops accepting, ends input on every connection and waits for pending responses to be written
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        serverSocket.close();
+        for (Connection connection : connections) {
+            connection.shutdown();
+        }
+
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MILLIS;
+        try {
+            acceptor.join(SHUTDOWN_TIMEOUT_MILLIS);
+            for (Connection connection : connections) {
+                connection.await(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Connection connection : connections) {
+                connection.closeSocket();
+            }
+        }
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final StringBuilder lineBuffer = new StringBuilder(128);
+        private boolean lineTooLong;
+        private Thread thread;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void start() {
+            thread = Thread.ofVirtual().name("airport-server-connection").start(this::serve);
+        }
+
+        private void serve() {
+            try {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                Writer out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = readLine(in)) != null) {
+                    if (lineTooLong) {
+                        out.write("{\"ok\":false,\"error\":\"Request line longer than " + MAX_LINE_CHARS
+                                + " characters\"}");
+                    } else if (line.isBlank()) {
+                        continue;
+                    } else if (line.strip().equalsIgnoreCase("quit")) {
+                        break;
+                    } else {
+                        out.write(handle(line));
+                    }
+                    out.write('\n');
+                    // Responses to pipelined requests go out in one write once the input runs dry
+                    if (!in.ready()) {
+                        out.flush();
+                    }
+                }
+                out.flush();
+            } catch (SocketException e) {
+                // Client went away
+            } catch (IOException e) {
+                System.err.println("Server connection failed: " + e.getMessage());
+            } finally {
+                closeSocket();
+                connections.remove(this);
+            }
+        }
+
+        // Like BufferedReader.readLine, but keeps at most MAX_LINE_CHARS of a line; the rest of a
+        // longer one is read and dropped, and lineTooLong is set. Returns null at end of input.
+        private String readLine(BufferedReader in) throws IOException {
+            lineBuffer.setLength(0);
+            lineTooLong = false;
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c == -1) {
+                    return lineBuffer.isEmpty() && !lineTooLong ? null : lineBuffer.toString();
+                }
+                if (lineBuffer.length() < MAX_LINE_CHARS) {
+                    lineBuffer.append((char) c);
+                } else {
+                    lineTooLong = true;
+                }
+            }
+            if (!lineBuffer.isEmpty() && lineBuffer.charAt(lineBuffer.length() - 1) == '\r') {
+                lineBuffer.setLength(lineBuffer.length() - 1);
+            }
+            return lineBuffer.toString();
+        }
+
+        void shutdown() {
+            try {
+                socket.shutdownInput();
+            } catch (IOException e) {
+                closeSocket();
+            }
+        }
+
+        void await(long millis) throws InterruptedException {
+            if (thread != null) {
+                thread.join(millis);
+            }
+        }
+
+        void closeSocket() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+}
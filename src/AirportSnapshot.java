@@ -0,0 +1,423 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Compacted binary image of all passengers, flights and bookings, read through a memory map.
+//
+// Layout: a fixed header, an offset table of passengers sorted by numeric ID, an offset table
+// of flights, then the records. Passengers are looked up by binary search over the mapped
+// table and decoded only when first touched; bookings refer to passengers by table slot.
+// The header also records the first log segment to replay on top of the image.
+public final class AirportSnapshot {
+    private static final int MAGIC = 0x41534E50; // "ASNP"
+    // Only the current layout is read; older images have to be rebuilt from their journal
+    private static final int VERSION = 4;
+    private static final int HEADER_SIZE = 32;
+
+    private static final int COLD = 0;
+    private static final int LOADING = 1;
+    private static final int LOADED = 2;
+    private static final int REMOVED = 3;
+
+    private final MappedByteBuffer buffer;
+    private final long replayFromSegment;
+    private final int passengerCount;
+    private final int flightCount;
+    private final int passengerTable;
+    private final int flightTable;
+    private final AtomicIntegerArray passengerState;
+    private final AtomicInteger coldPassengers;
+
+    private AirportSnapshot(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an airport snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(4) + ", expected " + VERSION);
+        }
+        this.buffer = buffer;
+        this.replayFromSegment = buffer.getLong(8);
+        this.passengerCount = buffer.getInt(16);
+        this.flightCount = buffer.getInt(20);
+        this.passengerTable = HEADER_SIZE;
+        this.flightTable = HEADER_SIZE + passengerCount * 4;
+        this.passengerState = new AtomicIntegerArray(passengerCount);
+        this.coldPassengers = new AtomicInteger(passengerCount);
+    }
+
+    // Maps an existing snapshot; returns null if there is none yet
+    public static AirportSnapshot open(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new AirportSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public long getReplayFromSegment() {
+        return replayFromSegment;
+    }
+
+    public int getPassengerCount() {
+        return passengerCount;
+    }
+
+    public int getFlightCount() {
+        return flightCount;
+    }
+
+    // Flights and their bookings are restored now; other passengers stay in the map until touched
+    public void restoreInto(AirportManager manager) {
+        manager.attachColdPassengers(this);
+        Flight.FlightStatus[] statuses = Flight.FlightStatus.values();
+        Passenger.TicketClass[] ticketClasses = Passenger.TicketClass.values();
+        for (int i = 0; i < flightCount; i++) {
+            int[] cursor = {buffer.getInt(flightTable + i * 4)};
+            String flightCode = readString(cursor);
+            String destination = readString(cursor);
+            String origin = readString(cursor);
+            cursor[0] += 8; // economy and business seat totals, implied by the cabins
+            LocalDateTime departure = readTime(cursor);
+            LocalDateTime arrival = readTime(cursor);
+            Flight.FlightStatus status = statuses[buffer.get(cursor[0]++)];
+            Flight flight = manager.addFlight(flightCode, destination, origin, readCabins(cursor));
+            flight.setDepartureTime(departure);
+            flight.setArrivalTime(arrival);
+            int blockedCount = readInt(cursor);
+            for (int j = 0; j < blockedCount; j++) {
+                flight.blockSeat(readInt(cursor));
+            }
+
+            int bookingCount = readInt(cursor);
+            for (int j = 0; j < bookingCount; j++) {
+                int slot = readInt(cursor);
+                Passenger.TicketClass ticketClass = ticketClasses[buffer.get(cursor[0]++)];
+                int seat = readInt(cursor);
+                Passenger passenger = manager.findPassengerById(readPassengerId(slot));
+                if (passenger != null) {
+                    flight.restoreBooking(passenger, ticketClass, seat);
+                }
+            }
+            flight.restoreStatus(status);
+        }
+    }
+
+    // Binary search over the mapped ID table, reading IDs in place without decoding
+    int findPassenger(String passengerId) {
+        long id = PassengerIdGenerator.parse(passengerId);
+        if (id < 0) {
+            return -1;
+        }
+        int low = 0;
+        int high = passengerCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compare(readNumericId(passengerOffset(mid)), id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Decodes the passenger at slot exactly once; the winner must call loaded() afterwards
+    Passenger claim(int slot) {
+        if (!passengerState.compareAndSet(slot, COLD, LOADING)) {
+            return null;
+        }
+        coldPassengers.decrementAndGet();
+        int[] cursor = {passengerOffset(slot)};
+        String passengerId = readString(cursor);
+        String name = readString(cursor);
+        int age = readInt(cursor);
+        String address = readString(cursor);
+        double baggageWeight = buffer.getDouble(cursor[0]);
+        cursor[0] += 8;
+        Passenger passenger = new Passenger(passengerId, name, age, address, baggageWeight);
+        passenger.setTicketClass(Passenger.TicketClass.values()[buffer.get(cursor[0])]);
+        return passenger;
+    }
+
+    void loaded(int slot) {
+        passengerState.set(slot, LOADED);
+    }
+
+    // Waits out a concurrent claim; true once the slot is no longer cold or loading
+    boolean awaitSettled(int slot) {
+        int state;
+        while ((state = passengerState.get(slot)) == LOADING) {
+            Thread.onSpinWait();
+        }
+        return state != COLD;
+    }
+
+    boolean remove(int slot) {
+        if (passengerState.compareAndSet(slot, COLD, REMOVED)) {
+            coldPassengers.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    int getColdPassengerCount() {
+        return coldPassengers.get();
+    }
+
+    String readPassengerId(int slot) {
+        return readString(new int[]{passengerOffset(slot)});
+    }
+
+    // Slots never decoded, or still being decoded, in table (numeric ID) order
+    int[] unloadedSlots() {
+        int[] slots = new int[passengerCount];
+        int count = 0;
+        for (int slot = 0; slot < passengerCount; slot++) {
+            int state = passengerState.get(slot);
+            if (state == COLD || state == LOADING) {
+                slots[count++] = slot;
+            }
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    // Writes the whole image in one pass over the data, then fills in the tables and header.
+    // Passengers still cold in the current image are copied from its mapping without decoding.
+    public static void write(Path file, AirportManager manager, long replayFromSegment) throws IOException {
+        // Cold slots are taken before the loaded passengers, so one decoded in between shows up
+        // in both lists instead of neither; the loaded copy wins below
+        AirportSnapshot cold = manager.getColdPassengers();
+        int[] coldSlots = cold != null ? cold.unloadedSlots() : new int[0];
+        List<Passenger> passengers = new ArrayList<>();
+        for (Passenger view : manager.getLoadedPassengers()) {
+            // A passenger removed meanwhile is left out; its removal is in the replayed log anyway
+            Passenger copy = view.snapshot();
+            if (copy != null) {
+                passengers.add(copy);
+            }
+        }
+        passengers.sort((a, b) -> Long.compare(a.getNumericId(), b.getNumericId()));
+        List<Flight> flights = manager.getAllFlights();
+
+        // Merged table order: a loaded passenger's index, or ~slot for a cold record
+        int[] order = new int[passengers.size() + coldSlots.length];
+        int count = 0;
+        int next = 0;
+        for (int coldSlot : coldSlots) {
+            long coldId = cold.readNumericId(cold.passengerOffset(coldSlot));
+            while (next < passengers.size() && passengers.get(next).getNumericId() < coldId) {
+                order[count++] = next++;
+            }
+            if (next == passengers.size() || passengers.get(next).getNumericId() != coldId) {
+                order[count++] = ~coldSlot;
+            }
+        }
+        while (next < passengers.size()) {
+            order[count++] = next++;
+        }
+
+        // Bookings always point at loaded passengers, since booking one decodes it
+        Map<String, Integer> slots = new HashMap<>(passengers.size() * 2);
+        for (int slot = 0; slot < count; slot++) {
+            if (order[slot] >= 0) {
+                slots.put(passengers.get(order[slot]).getPassengerId(), slot);
+            }
+        }
+
+        int tablesSize = (count + flights.size()) * 4;
+        long dataStart = (long) HEADER_SIZE + tablesSize;
+        ByteBuffer tables = ByteBuffer.allocate(tablesSize);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(dataStart);
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+
+            for (int i = 0; i < count; i++) {
+                tables.putInt(offsetOf(dataStart, out));
+                if (order[i] < 0) {
+                    cold.copyPassenger(~order[i], out);
+                    continue;
+                }
+                Passenger passenger = passengers.get(order[i]);
+                writeString(out, passenger.getPassengerId());
+                writeString(out, passenger.getName());
+                out.writeInt(passenger.getAge());
+                writeString(out, passenger.getAddress());
+                out.writeDouble(passenger.getBaggageWeight());
+                out.writeByte(passenger.getTicketClass().ordinal());
+            }
+
+            for (Flight flight : flights) {
+                tables.putInt(offsetOf(dataStart, out));
+                writeString(out, flight.getFlightCode());
+                writeString(out, flight.getDestination());
+                writeString(out, flight.getOrigin());
+                out.writeInt(flight.getTotalEconomySeats());
+                out.writeInt(flight.getTotalBusinessSeats());
+                AirportJournal.writeTime(out, flight.getDepartureTime());
+                AirportJournal.writeTime(out, flight.getArrivalTime());
+                // Status before bookings: a booking is never older than the status it was made under
+                out.writeByte(flight.getStatus().ordinal());
+                writeCabins(out, flight.getCabins());
+                int[] blockedSeats = flight.getSeatMap().getBlockedSeats();
+                out.writeInt(blockedSeats.length);
+                for (int seat : blockedSeats) {
+                    out.writeInt(seat);
+                }
+
+                List<int[]> bookings = new ArrayList<>();
+                for (Passenger passenger : flight.getPassengerList()) {
+                    Integer slot = slots.get(passenger.getPassengerId());
+                    Passenger.TicketClass ticketClass = flight.getBookedClass(passenger.getPassengerId());
+                    if (slot != null && ticketClass != null) {
+                        bookings.add(new int[]{slot, ticketClass.ordinal(), flight.getSeatNumber(passenger.getPassengerId())});
+                    }
+                }
+                out.writeInt(bookings.size());
+                for (int[] booking : bookings) {
+                    out.writeInt(booking[0]);
+                    out.writeByte(booking[1]);
+                    out.writeInt(booking[2]);
+                }
+            }
+            out.flush();
+            offsetOf(dataStart, out);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(replayFromSegment)
+                    .putInt(count).putInt(flights.size());
+            header.rewind();
+            tables.flip();
+            writeFully(channel, header, 0);
+            writeFully(channel, tables, HEADER_SIZE);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private int passengerOffset(int slot) {
+        return buffer.getInt(passengerTable + slot * 4);
+    }
+
+    // IDs in the table were valid when written, so they are "P" and hex digits
+    private long readNumericId(int offset) {
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        long id = 0;
+        for (int i = 1; i < length; i++) {
+            id = (id << 4) | Character.digit(buffer.get(offset + 2 + i), 16);
+        }
+        return id;
+    }
+
+    // Copies a passenger record byte for byte; the layout is ID, name, age, address, baggage, class
+    private void copyPassenger(int slot, DataOutputStream out) throws IOException {
+        int start = passengerOffset(slot);
+        int end = skipString(skipString(skipString(start)) + 4) + 8 + 1;
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        out.write(bytes);
+    }
+
+    private int skipString(int offset) {
+        return offset + 2 + Short.toUnsignedInt(buffer.getShort(offset));
+    }
+
+    private String readString(int[] cursor) {
+        int length = Short.toUnsignedInt(buffer.getShort(cursor[0]));
+        byte[] bytes = new byte[length];
+        buffer.get(cursor[0] + 2, bytes);
+        cursor[0] += 2 + length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<Cabin> readCabins(int[] cursor) {
+        int count = readInt(cursor);
+        Passenger.TicketClass[] ticketClasses = Passenger.TicketClass.values();
+        List<Cabin> cabins = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = readString(cursor);
+            Passenger.TicketClass ticketClass = ticketClasses[buffer.get(cursor[0]++)];
+            int firstRow = readInt(cursor);
+            int rows = readInt(cursor);
+            String layout = readString(cursor);
+            cabins.add(new Cabin(name, ticketClass, firstRow, rows, layout, readInt(cursor)));
+        }
+        return cabins;
+    }
+
+    private int readInt(int[] cursor) {
+        int value = buffer.getInt(cursor[0]);
+        cursor[0] += 4;
+        return value;
+    }
+
+    private LocalDateTime readTime(int[] cursor) {
+        long epochSecond = buffer.getLong(cursor[0]);
+        int nano = buffer.getInt(cursor[0] + 8);
+        cursor[0] += 12;
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private static int offsetOf(long dataStart, DataOutputStream out) throws IOException {
+        long offset = dataStart + out.size();
+        // DataOutputStream.size() saturates at Integer.MAX_VALUE, which also caps a single mapping
+        if (out.size() == Integer.MAX_VALUE || offset > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot exceeds 2 GB");
+        }
+        return (int) offset;
+    }
+
+    private static void writeCabins(DataOutputStream out, List<Cabin> cabins) throws IOException {
+        out.writeInt(cabins.size());
+        for (Cabin cabin : cabins) {
+            writeString(out, cabin.getName());
+            out.writeByte(cabin.getTicketClass().ordinal());
+            out.writeInt(cabin.getFirstRow());
+            out.writeInt(cabin.getRows());
+            writeString(out, cabin.getLayout());
+            out.writeInt(cabin.getSeatCount());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("Text field too long for snapshot");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source, long position) throws IOException {
+        while (source.hasRemaining()) {
+            position += channel.write(source, position);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Running airport-wide aggregates, updated from flight events so reads are O(1).
+// Each flight's contribution is tracked in its own tally; removing a flight subtracts exactly
+// what that tally added, even if a late event for the flight is still in flight.
+//
+// Booking events update the tally with a single CAS and never lock, so statistics cannot slow
+// the booking thread. They are still applied synchronously rather than through the
+// FlightEventBus, because the bus drops events when a subscriber falls behind and these counts
+// must match the manifests exactly. Status changes and flight removal already run under the
+// flight's monitor and take the tally's monitor as well.
+public class AirportStatistics implements FlightListener {
+    // Per-class booking counts share one word with the removed flag, so a booking either lands
+    // before the removal snapshot or not at all; counts are biased so a removal event that
+    // overtakes its boarding event cannot borrow from the neighbouring field
+    private static final int COUNT_BITS = 31;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long COUNT_BIAS = 1L << (COUNT_BITS - 1);
+    private static final long REMOVED = 1L << 62;
+
+    private final Map<Flight, Tally> tallies;
+    private final LongAdder flightCount;
+    private final LongAdder totalSeats;
+    private final LongAdder[] boardedByClass;
+    private final AtomicLongArray flightsByStatus;
+    private final DoubleAdder occupancySum;
+
+    public AirportStatistics() {
+        this.tallies = new ConcurrentHashMap<>();
+        this.flightCount = new LongAdder();
+        this.totalSeats = new LongAdder();
+        this.boardedByClass = new LongAdder[Passenger.TicketClass.values().length];
+        for (int i = 0; i < boardedByClass.length; i++) {
+            boardedByClass[i] = new LongAdder();
+        }
+        this.flightsByStatus = new AtomicLongArray(Flight.FlightStatus.values().length);
+        this.occupancySum = new DoubleAdder();
+    }
+
+    public void flightAdded(Flight flight) {
+        Tally tally = new Tally(flight.getTotalEconomySeats() + flight.getTotalBusinessSeats());
+        synchronized (tally) {
+            if (tallies.putIfAbsent(flight, tally) != null) {
+                return;
+            }
+            flightCount.increment();
+            totalSeats.add(tally.seats);
+            tally.status = flight.getStatus();
+            flightsByStatus.incrementAndGet(tally.status.ordinal());
+            // Restored flights can arrive with bookings already in place
+            for (Passenger passenger : flight.getPassengerList()) {
+                Passenger.TicketClass ticketClass = flight.getBookedClass(passenger.getPassengerId());
+                if (ticketClass != null) {
+                    tally.record(ticketClass, 1);
+                }
+            }
+        }
+    }
+
+    public void flightRemoved(Flight flight) {
+        Tally tally = tallies.remove(flight);
+        if (tally == null) {
+            return;
+        }
+        synchronized (tally) {
+            tally.removed = true;
+            long counts = tally.counts.getAndUpdate(state -> state | REMOVED);
+            flightCount.decrement();
+            totalSeats.add(-tally.seats);
+            flightsByStatus.decrementAndGet(tally.status.ordinal());
+            for (Passenger.TicketClass ticketClass : Passenger.TicketClass.values()) {
+                long boarded = count(counts, ticketClass);
+                boardedByClass[ticketClass.ordinal()].add(-boarded);
+                if (tally.seats > 0) {
+                    occupancySum.add(-boarded * 100.0 / tally.seats);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onPassengerBoarded(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass, int seat) {
+        Tally tally = tallies.get(flight);
+        if (tally != null) {
+            tally.record(ticketClass, 1);
+        }
+    }
+
+    @Override
+    public void onPassengerRemoved(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass) {
+        Tally tally = tallies.get(flight);
+        if (tally != null) {
+            tally.record(ticketClass, -1);
+        }
+    }
+
+    @Override
+    public void onStatusChanged(Flight flight, Flight.FlightStatus oldStatus, Flight.FlightStatus newStatus) {
+        Tally tally = tallies.get(flight);
+        if (tally != null) {
+            synchronized (tally) {
+                if (!tally.removed && tally.status != newStatus) {
+                    flightsByStatus.decrementAndGet(tally.status.ordinal());
+                    flightsByStatus.incrementAndGet(newStatus.ordinal());
+                    tally.status = newStatus;
+                }
+            }
+        }
+    }
+
+    public long getFlightCount() {
+        return flightCount.sum();
+    }
+
+    public long getFlightCount(Flight.FlightStatus status) {
+        return flightsByStatus.get(status.ordinal());
+    }
+
+    public long getTotalSeats() {
+        return totalSeats.sum();
+    }
+
+    public long getBoardedPassengers(Passenger.TicketClass ticketClass) {
+        return boardedByClass[ticketClass.ordinal()].sum();
+    }
+
+    public long getTotalBoardedPassengers() {
+        long total = 0;
+        for (LongAdder boarded : boardedByClass) {
+            total += boarded.sum();
+        }
+        return total;
+    }
+
+    // Mean of per-flight occupancy percentages, as Flight.getOccupancyRate() reports them
+    public double getAverageOccupancy() {
+        long flights = flightCount.sum();
+        return flights > 0 ? Math.max(0, occupancySum.sum() / flights) : 0;
+    }
+
+    private static long count(long counts, Passenger.TicketClass ticketClass) {
+        return ((counts >>> (ticketClass.ordinal() * COUNT_BITS)) & COUNT_MASK) - COUNT_BIAS;
+    }
+
+    private final class Tally {
+        private final int seats;
+        private final AtomicLong counts;
+        // Guarded by this tally's monitor
+        private Flight.FlightStatus status;
+        private boolean removed;
+
+        private Tally(int seats) {
+            this.seats = seats;
+            long initial = 0;
+            for (Passenger.TicketClass ticketClass : Passenger.TicketClass.values()) {
+                initial |= COUNT_BIAS << (ticketClass.ordinal() * COUNT_BITS);
+            }
+            this.counts = new AtomicLong(initial);
+        }
+
+        // Lock-free; does nothing once the flight's removal has taken its snapshot
+        private void record(Passenger.TicketClass ticketClass, int delta) {
+            long step = (long) delta << (ticketClass.ordinal() * COUNT_BITS);
+            long state;
+            do {
+                state = counts.get();
+                if ((state & REMOVED) != 0) {
+                    return;
+                }
+            } while (!counts.compareAndSet(state, state + step));
+            boardedByClass[ticketClass.ordinal()].add(delta);
+            if (seats > 0) {
+                occupancySum.add(delta * 100.0 / seats);
+            }
+        }
+    }
+}
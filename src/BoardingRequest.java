@@ -0,0 +1,28 @@
+public class BoardingRequest {
+    private final String passengerId;
+    private final String flightCode;
+    private final Passenger.TicketClass ticketClass;
+
+    public BoardingRequest(String passengerId, String flightCode, Passenger.TicketClass ticketClass) {
+        this.passengerId = passengerId;
+        this.flightCode = flightCode;
+        this.ticketClass = ticketClass;
+    }
+
+    public String getPassengerId() {
+        return passengerId;
+    }
+
+    public String getFlightCode() {
+        return flightCode;
+    }
+
+    public Passenger.TicketClass getTicketClass() {
+        return ticketClass;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s → %s (%s)", passengerId, flightCode, ticketClass.getName());
+    }
+}
@@ -0,0 +1,46 @@
+public class BoardingResult {
+    private final BoardingRequest request;
+    private final Outcome outcome;
+
+    public enum Outcome {
+        BOARDED("Boarded"),
+        NO_SEAT_AVAILABLE("No seat available"),
+        ALREADY_BOARDED("Already boarded"),
+        PASSENGER_NOT_FOUND("Passenger not found"),
+        FLIGHT_NOT_FOUND("Flight not found"),
+        FLIGHT_NOT_BOARDING("Flight not open for boarding"),
+        WAITLISTED("Waitlisted");
+
+        private final String displayName;
+
+        Outcome(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    public BoardingResult(BoardingRequest request, Outcome outcome) {
+        this.request = request;
+        this.outcome = outcome;
+    }
+
+    public BoardingRequest getRequest() {
+        return request;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public boolean isBoarded() {
+        return outcome == Outcome.BOARDED;
+    }
+
+    @Override
+    public String toString() {
+        return request + ": " + outcome.getDisplayName();
+    }
+}
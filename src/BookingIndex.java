@@ -0,0 +1,61 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Reverse index from passenger ID to the flights that passenger is booked on.
+// Board/remove events for the same passenger can be delivered out of order, so each
+// event re-reads the flight's booking inside the per-passenger compute instead of
+// trusting the event kind; the last update to run always sees the final state.
+public class BookingIndex implements FlightListener {
+    private final Map<String, Set<Flight>> flightsByPassenger;
+
+    public BookingIndex() {
+        this.flightsByPassenger = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onPassengerBoarded(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass, int seat) {
+        sync(passenger.getPassengerId(), flight);
+    }
+
+    @Override
+    public void onPassengerRemoved(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass) {
+        sync(passenger.getPassengerId(), flight);
+    }
+
+    public List<Flight> findFlights(String passengerId) {
+        Set<Flight> flights = flightsByPassenger.get(passengerId);
+        return flights != null ? new ArrayList<>(flights) : new ArrayList<>();
+    }
+
+    public int countFlights(String passengerId) {
+        Set<Flight> flights = flightsByPassenger.get(passengerId);
+        return flights != null ? flights.size() : 0;
+    }
+
+    // Drops a flight that left the system; its bookings are no longer reachable
+    public void removeFlight(Flight flight) {
+        for (Passenger passenger : flight.getPassengerList()) {
+            flightsByPassenger.computeIfPresent(passenger.getPassengerId(), (id, flights) -> {
+                flights.remove(flight);
+                return flights.isEmpty() ? null : flights;
+            });
+        }
+    }
+
+    private void sync(String passengerId, Flight flight) {
+        flightsByPassenger.compute(passengerId, (id, flights) -> {
+            if (flight.getBookedClass(id) != null) {
+                if (flights == null) {
+                    flights = ConcurrentHashMap.newKeySet();
+                }
+                flights.add(flight);
+            } else if (flights != null) {
+                flights.remove(flight);
+            }
+            return flights == null || flights.isEmpty() ? null : flights;
+        });
+    }
+}
@@ -0,0 +1,469 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Streaming CSV import of passengers and flights.
+//
+// The calling thread reads the file chunk by chunk, worker threads parse and validate chunks
+// in parallel with the same rules as the setters, and validated chunks are inserted in batches
+// as they complete. At most a few chunks per worker are in flight, so memory stays bounded no
+// matter how large the file is. The first row of a file is a header naming the columns.
+public class BulkImporter {
+    private static final int DEFAULT_CHUNK_SIZE = 5000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // A quoted field may span lines, up to these limits per row
+    private static final int MAX_ROW_LINES = 100;
+    private static final int MAX_ROW_CHARS = 64 * 1024;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final AirportManager manager;
+    private final int chunkSize;
+    private final int threads;
+
+    public BulkImporter(AirportManager manager) {
+        this(manager, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BulkImporter(AirportManager manager, int chunkSize, int threads) {
+        if (chunkSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Chunk size and thread count must be positive");
+        }
+        this.manager = manager;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    // Columns: name, age, address, baggage_weight and optionally passenger_id
+    public ImportReport importPassengers(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importPassengers(reader);
+        }
+    }
+
+    public ImportReport importPassengers(Reader reader) throws IOException {
+        return run(reader, new RowHandler<PassengerRow>() {
+            @Override
+            public PassengerRow parse(Columns columns) {
+                String name = columns.required("name");
+                int age = columns.parseInt("age");
+                Person.validateAge(age);
+                double baggageWeight = columns.parseDouble("baggage_weight");
+                Passenger.validateBaggageWeight(baggageWeight);
+                return new PassengerRow(columns.optional("passenger_id"), name, age,
+                        columns.required("address"), baggageWeight);
+            }
+
+            @Override
+            public void insert(PassengerRow row) {
+                if (row.passengerId != null) {
+                    manager.addPassenger(row.passengerId, row.name, row.age, row.address, row.baggageWeight);
+                } else {
+                    manager.addPassenger(row.name, row.age, row.address, row.baggageWeight);
+                }
+            }
+        });
+    }
+
+    // Columns: flight_code, origin, destination, economy_seats, business_seats and optionally
+    // departure and arrival as "yyyy-MM-dd HH:mm"
+    public ImportReport importFlights(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFlights(reader);
+        }
+    }
+
+    public ImportReport importFlights(Reader reader) throws IOException {
+        return run(reader, new RowHandler<FlightRow>() {
+            @Override
+            public FlightRow parse(Columns columns) {
+                String flightCode = columns.required("flight_code");
+                int economySeats = columns.parseInt("economy_seats");
+                int businessSeats = columns.parseInt("business_seats");
+                if (economySeats < 0 || businessSeats < 0 || economySeats + businessSeats == 0) {
+                    throw new IllegalArgumentException("Seat numbers must be positive");
+                }
+                LocalDateTime departure = columns.parseTime("departure");
+                LocalDateTime arrival = columns.parseTime("arrival");
+                if (departure != null && arrival != null && arrival.isBefore(departure)) {
+                    throw new IllegalArgumentException("Arrival is before departure");
+                }
+                return new FlightRow(flightCode, columns.required("origin"), columns.required("destination"),
+                        economySeats, businessSeats, departure, arrival);
+            }
+
+            @Override
+            public void insert(FlightRow row) {
+                Flight flight = manager.addFlight(row.flightCode, row.destination, row.origin,
+                        row.economySeats, row.businessSeats);
+                if (row.departure != null) {
+                    flight.setDepartureTime(row.departure);
+                }
+                if (row.arrival != null) {
+                    flight.setArrivalTime(row.arrival);
+                }
+            }
+        });
+    }
+
+    private <T> ImportReport run(Reader source, RowHandler<T> handler) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        ImportTally tally = new ImportTally();
+
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return tally.toReport(start);
+        }
+        Map<String, Integer> header = parseHeader(headerLine);
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "bulk-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<List<ParsedRow<T>>> completion = new ExecutorCompletionService<>(workers);
+        int maxInFlight = threads * 2;
+        int inFlight = 0;
+        try {
+            RowReader rows = new RowReader(reader);
+            while (true) {
+                List<RawRow> chunk = new ArrayList<>(chunkSize);
+                RawRow row;
+                while (chunk.size() < chunkSize && (row = rows.next()) != null) {
+                    if (row.text == null || !row.text.isBlank()) {
+                        chunk.add(row);
+                    }
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                if (inFlight == maxInFlight) {
+                    insertChunk(completion.take(), handler, tally);
+                    inFlight--;
+                }
+                completion.submit(() -> parseChunk(chunk, header, handler));
+                inFlight++;
+            }
+            while (inFlight > 0) {
+                insertChunk(completion.take(), handler, tally);
+                inFlight--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+        return tally.toReport(start);
+    }
+
+    private static <T> List<ParsedRow<T>> parseChunk(List<RawRow> chunk, Map<String, Integer> header,
+                                                     RowHandler<T> handler) {
+        List<ParsedRow<T>> parsed = new ArrayList<>(chunk.size());
+        for (RawRow row : chunk) {
+            if (row.error != null) {
+                parsed.add(new ParsedRow<>(row.lineNumber, null, row.error));
+                continue;
+            }
+            try {
+                Columns columns = new Columns(header, splitCsv(row.text));
+                parsed.add(new ParsedRow<>(row.lineNumber, handler.parse(columns), null));
+            } catch (IllegalArgumentException e) {
+                parsed.add(new ParsedRow<>(row.lineNumber, null, e.getMessage()));
+            }
+        }
+        return parsed;
+    }
+
+    private static <T> void insertChunk(Future<List<ParsedRow<T>>> done, RowHandler<T> handler, ImportTally tally)
+            throws InterruptedException, IOException {
+        List<ParsedRow<T>> rows;
+        try {
+            rows = done.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Import worker failed", e.getCause());
+        }
+        for (ParsedRow<T> row : rows) {
+            tally.rowsRead++;
+            if (row.error != null) {
+                tally.reject(row.lineNumber, row.error);
+                continue;
+            }
+            try {
+                handler.insert(row.value);
+                tally.imported++;
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                tally.reject(row.lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> names = splitCsv(line);
+        for (int i = 0; i < names.size(); i++) {
+            header.put(normalizeColumn(names.get(i)), i);
+        }
+        return header;
+    }
+
+    // "Baggage Weight", "baggage_weight" and "baggageWeight" all name the same column
+    private static String normalizeColumn(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", "");
+    }
+
+    private static int countQuotes(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    // RFC 4180 style: commas separate fields, quotes wrap fields and "" is an escaped quote
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private interface RowHandler<T> {
+        T parse(Columns columns);
+
+        void insert(T row);
+    }
+
+    private static final class Columns {
+        private final Map<String, Integer> header;
+        private final List<String> fields;
+
+        private Columns(Map<String, Integer> header, List<String> fields) {
+            this.header = header;
+            this.fields = fields;
+        }
+
+        private String optional(String column) {
+            Integer index = header.get(normalizeColumn(column));
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private String required(String column) {
+            String value = optional(column);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing " + column);
+            }
+            return value;
+        }
+
+        private int parseInt(String column) {
+            String value = required(column);
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        private double parseDouble(String column) {
+            String value = required(column);
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        private LocalDateTime parseTime(String column) {
+            String value = optional(column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return LocalDateTime.parse(value, TIME_FORMAT);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+    }
+
+    // Reads one CSV row at a time, joining the lines of quoted fields that span lines. A quote
+    // still open after MAX_ROW_LINES or MAX_ROW_CHARS makes the row an error, and the lines read
+    // past it are read again as rows of their own, so one stray quote cannot swallow the file.
+    private static final class RowReader {
+        private final BufferedReader reader;
+        private final ArrayDeque<String> unread = new ArrayDeque<>();
+        private long lineNumber = 1; // the header
+
+        private RowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        private RawRow next() throws IOException {
+            String line = nextLine();
+            if (line == null || countQuotes(line) % 2 == 0) {
+                return line == null ? null : new RawRow(lineNumber, line, null);
+            }
+            long firstLine = lineNumber;
+            StringBuilder row = new StringBuilder(line);
+            List<String> continuation = new ArrayList<>();
+            while (continuation.size() < MAX_ROW_LINES && row.length() <= MAX_ROW_CHARS) {
+                String next = nextLine();
+                if (next == null) {
+                    break;
+                }
+                continuation.add(next);
+                row.append('\n').append(next);
+                if (countQuotes(next) % 2 != 0) {
+                    if (row.length() <= MAX_ROW_CHARS) {
+                        return new RawRow(firstLine, row.toString(), null);
+                    }
+                    break;
+                }
+            }
+            for (int i = continuation.size() - 1; i >= 0; i--) {
+                unread.push(continuation.get(i));
+            }
+            lineNumber = firstLine;
+            return new RawRow(firstLine, null, "Unbalanced quote: field not closed within "
+                    + MAX_ROW_LINES + " lines or " + MAX_ROW_CHARS + " characters");
+        }
+
+        private String nextLine() throws IOException {
+            String line = unread.isEmpty() ? reader.readLine() : unread.pop();
+            if (line != null) {
+                lineNumber++;
+            }
+            return line;
+        }
+    }
+
+    // Either the text of a row, or the reason it could not be read
+    private static final class RawRow {
+        private final long lineNumber;
+        private final String text;
+        private final String error;
+
+        private RawRow(long lineNumber, String text, String error) {
+            this.lineNumber = lineNumber;
+            this.text = text;
+            this.error = error;
+        }
+    }
+
+    private static final class ParsedRow<T> {
+        private final long lineNumber;
+        private final T value;
+        private final String error;
+
+        private ParsedRow(long lineNumber, T value, String error) {
+            this.lineNumber = lineNumber;
+            this.value = value;
+            this.error = error;
+        }
+    }
+
+    private static final class PassengerRow {
+        private final String passengerId;
+        private final String name;
+        private final int age;
+        private final String address;
+        private final double baggageWeight;
+
+        private PassengerRow(String passengerId, String name, int age, String address, double baggageWeight) {
+            this.passengerId = passengerId;
+            this.name = name;
+            this.age = age;
+            this.address = address;
+            this.baggageWeight = baggageWeight;
+        }
+    }
+
+    private static final class FlightRow {
+        private final String flightCode;
+        private final String origin;
+        private final String destination;
+        private final int economySeats;
+        private final int businessSeats;
+        private final LocalDateTime departure;
+        private final LocalDateTime arrival;
+
+        private FlightRow(String flightCode, String origin, String destination, int economySeats,
+                          int businessSeats, LocalDateTime departure, LocalDateTime arrival) {
+            this.flightCode = flightCode;
+            this.origin = origin;
+            this.destination = destination;
+            this.economySeats = economySeats;
+            this.businessSeats = businessSeats;
+            this.departure = departure;
+            this.arrival = arrival;
+        }
+    }
+
+    // Only touched by the importing thread
+    private static final class ImportTally {
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(lineNumber, message));
+            }
+        }
+
+        private ImportReport toReport(long start) {
+            return new ImportReport(rowsRead, imported, rejected, errors, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
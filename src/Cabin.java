@@ -0,0 +1,110 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable description of one cabin: which ticket class it serves, its row numbers and the
+// seat letters of a row, where a space marks an aisle (e.g. "ABC DEF"). A seat count below
+// rows * letters leaves the trailing seats of the last row uninstalled.
+public final class Cabin {
+    private final String name;
+    private final Passenger.TicketClass ticketClass;
+    private final int firstRow;
+    private final int rows;
+    private final String layout;
+    private final String letters;
+    private final int seatCount;
+
+    public Cabin(String name, Passenger.TicketClass ticketClass, int firstRow, int rows, String layout) {
+        this(name, ticketClass, firstRow, rows, layout, -1);
+    }
+
+    public Cabin(String name, Passenger.TicketClass ticketClass, int firstRow, int rows, String layout,
+                 int seatCount) {
+        if (name == null || name.isBlank() || ticketClass == null) {
+            throw new IllegalArgumentException("Cabin needs a name and a ticket class");
+        }
+        if (firstRow <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Cabin rows must be positive");
+        }
+        String trimmed = layout == null ? "" : layout.trim();
+        String seatLetters = trimmed.replace(" ", "");
+        if (seatLetters.isEmpty() || seatLetters.length() > 16 || trimmed.contains("  ")
+                || seatLetters.chars().distinct().count() != seatLetters.length()
+                || !seatLetters.chars().allMatch(Character::isLetter)) {
+            throw new IllegalArgumentException("Invalid seat layout: " + layout);
+        }
+        int capacity = rows * seatLetters.length();
+        if (seatCount > capacity || (seatCount != -1 && seatCount <= 0)) {
+            throw new IllegalArgumentException("Seat count must be between 1 and " + capacity);
+        }
+        this.name = name;
+        this.ticketClass = ticketClass;
+        this.firstRow = firstRow;
+        this.rows = rows;
+        this.layout = trimmed.toUpperCase();
+        this.letters = seatLetters.toUpperCase();
+        this.seatCount = seatCount == -1 ? capacity : seatCount;
+    }
+
+    // Business rows of "AC DF" ahead of economy rows of "ABC DEF", sized to the requested seat counts;
+    // a class with no seats gets no cabin
+    public static List<Cabin> standardLayout(int economySeats, int businessSeats) {
+        if (economySeats < 0 || businessSeats < 0) {
+            throw new IllegalArgumentException("Seat numbers cannot be negative");
+        }
+        int businessRows = (businessSeats + 3) / 4;
+        int economyRows = (economySeats + 5) / 6;
+        List<Cabin> cabins = new ArrayList<>(2);
+        if (businessSeats > 0) {
+            cabins.add(new Cabin("Business", Passenger.TicketClass.BUSINESS, 1, businessRows, "AC DF", businessSeats));
+        }
+        if (economySeats > 0) {
+            cabins.add(new Cabin("Economy", Passenger.TicketClass.ECONOMY, businessRows + 1, economyRows, "ABC DEF",
+                    economySeats));
+        }
+        return cabins;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Passenger.TicketClass getTicketClass() {
+        return ticketClass;
+    }
+
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public String getLayout() {
+        return layout;
+    }
+
+    public String getLetters() {
+        return letters;
+    }
+
+    public int getSeatsPerRow() {
+        return letters.length();
+    }
+
+    public int getSeatCount() {
+        return seatCount;
+    }
+
+    // True if an aisle separates the seat at column from the one after it
+    public boolean hasAisleAfter(int column) {
+        int position = layout.indexOf(letters.charAt(column));
+        return position + 1 < layout.length() && layout.charAt(position + 1) == ' ';
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s): rows %d-%d, %s, %d seats",
+                name, ticketClass.getName(), firstRow, firstRow + rows - 1, layout, seatCount);
+    }
+}
@@ -0,0 +1,53 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Splits a command line into whitespace-separated tokens in one pass, without regexes.
+// Double quotes group words into one token, and a backslash inside quotes escapes the
+// next character, so names and addresses with spaces can be passed as single arguments.
+public final class CommandTokenizer {
+    private CommandTokenizer() {
+    }
+
+    public static List<String> tokenize(CharSequence line) {
+        List<String> tokens = new ArrayList<>(8);
+        tokenize(line, tokens, new StringBuilder());
+        return tokens;
+    }
+
+    // Appends the tokens of line to tokens; scratch is reused for quoted tokens
+    public static void tokenize(CharSequence line, List<String> tokens, StringBuilder scratch) {
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            char c = line.charAt(i);
+            if (c <= ' ') {
+                i++;
+            } else if (c == '"') {
+                scratch.setLength(0);
+                i++;
+                boolean closed = false;
+                while (i < length) {
+                    char q = line.charAt(i++);
+                    if (q == '"') {
+                        closed = true;
+                        break;
+                    }
+                    if (q == '\\' && i < length) {
+                        q = line.charAt(i++);
+                    }
+                    scratch.append(q);
+                }
+                if (!closed) {
+                    throw new IllegalArgumentException("Unterminated quote");
+                }
+                tokens.add(scratch.toString());
+            } else {
+                int start = i;
+                while (i < length && line.charAt(i) > ' ') {
+                    i++;
+                }
+                tokens.add(line.subSequence(start, i).toString());
+            }
+        }
+    }
+}
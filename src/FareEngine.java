@@ -0,0 +1,182 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Quotes fares per flight and cabin as base fare x class price multiplier x an occupancy factor
+// x a time-to-departure factor. Every flight has a price table with one row per occupancy step
+// and one column per time band, computed when the flight is added or its base fare changes.
+// Each cabin points at the row for its current occupancy; bookings, released seats and seat
+// blocks move that pointer, so a quote is two array reads with no locking and no allocation.
+// Placing a seat hold raises occupancy without a callback; it is priced in at the cabin's next booking.
+public class FareEngine implements FlightListener {
+    public static final double DEFAULT_BASE_FARE = 100.0;
+
+    // Occupancy in 10% steps, the last one for a full cabin
+    private static final double[] OCCUPANCY_FACTORS = {0.9, 0.9, 0.95, 1.0, 1.0, 1.05, 1.15, 1.3, 1.5, 1.75, 2.0};
+    // Time to departure, furthest first: 60+ days, 30+, 14+, 7+, 3+, 1+ days, under a day
+    private static final long[] BAND_STARTS_HOURS = {60 * 24, 30 * 24, 14 * 24, 7 * 24, 3 * 24, 24, 0};
+    private static final double[] BAND_FACTORS = {0.85, 0.9, 1.0, 1.1, 1.25, 1.4, 1.6};
+
+    private final Clock clock;
+    private final double defaultBaseFare;
+    private final Map<Flight, Fares> fares = new ConcurrentHashMap<>();
+
+    public FareEngine(Clock clock) {
+        this(clock, DEFAULT_BASE_FARE);
+    }
+
+    public FareEngine(Clock clock, double defaultBaseFare) {
+        if (defaultBaseFare <= 0) {
+            throw new IllegalArgumentException("Base fare must be positive");
+        }
+        this.clock = clock;
+        this.defaultBaseFare = defaultBaseFare;
+    }
+
+    public void add(Flight flight) {
+        publish(flight, new Fares(flight, defaultBaseFare, toMillis(flight.getDepartureTime())));
+    }
+
+    public void remove(Flight flight) {
+        fares.remove(flight);
+    }
+
+    public void setBaseFare(Flight flight, double baseFare) {
+        if (baseFare <= 0) {
+            throw new IllegalArgumentException("Base fare must be positive");
+        }
+        Fares current = require(flight);
+        publish(flight, new Fares(flight, baseFare, current.departureMillis));
+    }
+
+    public double getBaseFare(Flight flight) {
+        return require(flight).baseFare;
+    }
+
+    // Current fare for one seat; the flight must still be open for booking
+    public double quote(Flight flight, Passenger.TicketClass ticketClass) {
+        Fares current = require(flight);
+        Flight.FlightStatus status = flight.getStatus();
+        if (status != Flight.FlightStatus.SCHEDULED && status != Flight.FlightStatus.BOARDING) {
+            throw new IllegalStateException("Flight " + flight.getFlightCode() + " is not on sale");
+        }
+        double[] row = ticketClass == Passenger.TicketClass.BUSINESS ? current.business : current.economy;
+        return row[band(current.departureMillis - clock.millis())];
+    }
+
+    @Override
+    public void onPassengerBoarded(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass, int seat) {
+        refresh(flight, ticketClass);
+    }
+
+    @Override
+    public void onSeatsReleased(Flight flight, Passenger.TicketClass ticketClass) {
+        refresh(flight, ticketClass);
+    }
+
+    @Override
+    public void onSeatBlockChanged(Flight flight, int seat, boolean blocked) {
+        refresh(flight, Passenger.TicketClass.ECONOMY);
+        refresh(flight, Passenger.TicketClass.BUSINESS);
+    }
+
+    @Override
+    public void onScheduleChanged(Flight flight, LocalDateTime oldDeparture, LocalDateTime oldArrival) {
+        Fares current = fares.get(flight);
+        if (current != null) {
+            current.departureMillis = toMillis(flight.getDepartureTime());
+        }
+    }
+
+    // Points the cabin at the row for its occupancy. Booking callbacks run concurrently, so each
+    // writer re-reads the occupancy after publishing and repeats if it changed in between; the
+    // last writer to finish always leaves the row matching the seat counters.
+    private void refresh(Flight flight, Passenger.TicketClass ticketClass) {
+        Fares current = fares.get(flight);
+        if (current == null) {
+            return;
+        }
+        int step = occupancyStep(flight, ticketClass);
+        while (true) {
+            current.select(ticketClass, step);
+            int now = occupancyStep(flight, ticketClass);
+            if (now == step) {
+                return;
+            }
+            step = now;
+        }
+    }
+
+    // A base fare change replaces the table; the new one is re-pointed once visible, in case a
+    // booking refreshed the old table while the new one was being built
+    private void publish(Flight flight, Fares table) {
+        fares.put(flight, table);
+        refresh(flight, Passenger.TicketClass.ECONOMY);
+        refresh(flight, Passenger.TicketClass.BUSINESS);
+    }
+
+    private Fares require(Flight flight) {
+        Fares current = fares.get(flight);
+        if (current == null) {
+            throw new IllegalArgumentException("Flight not priced: " + flight.getFlightCode());
+        }
+        return current;
+    }
+
+    private static int occupancyStep(Flight flight, Passenger.TicketClass ticketClass) {
+        return (int) (flight.getOccupancyRate(ticketClass) / 10);
+    }
+
+    private static int band(long millisToDeparture) {
+        long hours = Math.max(millisToDeparture, 0) / Duration.ofHours(1).toMillis();
+        int band = 0;
+        while (hours < BAND_STARTS_HOURS[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private static final class Fares {
+        private final double baseFare;
+        private final double[][] economyTable;
+        private final double[][] businessTable;
+        private volatile long departureMillis;
+        // Rows of the tables for the cabins' current occupancy
+        private volatile double[] economy;
+        private volatile double[] business;
+
+        private Fares(Flight flight, double baseFare, long departureMillis) {
+            this.baseFare = baseFare;
+            this.economyTable = table(baseFare * Passenger.TicketClass.ECONOMY.getPriceMultiplier());
+            this.businessTable = table(baseFare * Passenger.TicketClass.BUSINESS.getPriceMultiplier());
+            this.departureMillis = departureMillis;
+            this.economy = economyTable[occupancyStep(flight, Passenger.TicketClass.ECONOMY)];
+            this.business = businessTable[occupancyStep(flight, Passenger.TicketClass.BUSINESS)];
+        }
+
+        private void select(Passenger.TicketClass ticketClass, int step) {
+            if (ticketClass == Passenger.TicketClass.BUSINESS) {
+                business = businessTable[step];
+            } else {
+                economy = economyTable[step];
+            }
+        }
+
+        // Fares rounded to cents, by occupancy step then time band
+        private static double[][] table(double cabinFare) {
+            double[][] table = new double[OCCUPANCY_FACTORS.length][BAND_FACTORS.length];
+            for (int step = 0; step < OCCUPANCY_FACTORS.length; step++) {
+                for (int band = 0; band < BAND_FACTORS.length; band++) {
+                    table[step][band] = Math.round(cabinFare * OCCUPANCY_FACTORS[step] * BAND_FACTORS[band] * 100) / 100.0;
+                }
+            }
+            return table;
+        }
+    }
+}
@@ -1,22 +1,45 @@
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Flight {
+    // Booking changes of one passenger are announced to listeners one at a time, in the order
+    // they happened, by holding the passenger's stripe from the map update until every listener
+    // has run. Striped by passenger ID and shared by all flights, so flights cost no extra objects.
+    private static final Object[] BOOKING_LOCKS = new Object[256];
+
+    static {
+        for (int i = 0; i < BOOKING_LOCKS.length; i++) {
+            BOOKING_LOCKS[i] = new Object();
+        }
+    }
+
     private final String flightCode;
-    private String destination;
-    private String origin;
-    private LocalDateTime departureTime;
-    private LocalDateTime arrivalTime;
-    private int totalEconomySeats;
-    private int totalBusinessSeats;
-    private int availableEconomySeats;
-    private int availableBusinessSeats;
-    private final Map<String, Passenger> passengers;
-    private FlightStatus status;
+    private volatile String destination;
+    private volatile String origin;
+    private volatile LocalDateTime departureTime;
+    private volatile LocalDateTime arrivalTime;
+    private final int totalEconomySeats;
+    private final int totalBusinessSeats;
+    // Seat counters are the only contended state: boarding claims a seat with a CAS
+    // decrement, so concurrent desks never oversell and never block each other.
+    private final AtomicInteger availableEconomySeats;
+    private final AtomicInteger availableBusinessSeats;
+    // Which physical seat each booking holds; consulted only after a counter seat is claimed
+    private final SeatMap seatMap;
+    private final Map<String, Booking> passengers;
+    private volatile FlightStatus status;
+    private final List<FlightListener> listeners;
+    // Promotions lock the waitlist, never the flight, so freeing a seat stays off the flight monitor
+    private final Waitlist waitlist;
 
     public enum FlightStatus {
         SCHEDULED("Scheduled"),
@@ -35,19 +58,37 @@ public class Flight {
         public String getDisplayName() {
             return displayName;
         }
+
+        // Departed, arrived and cancelled flights cannot be reopened; a delay can precede boarding or departure
+        public boolean canTransitionTo(FlightStatus next) {
+            return switch (this) {
+                case SCHEDULED -> next == BOARDING || next == DELAYED || next == CANCELLED;
+                case DELAYED -> next == SCHEDULED || next == BOARDING || next == CANCELLED;
+                case BOARDING -> next == DEPARTED || next == DELAYED || next == CANCELLED;
+                case DEPARTED -> next == ARRIVED;
+                case ARRIVED, CANCELLED -> false;
+            };
+        }
     }
 
     public Flight(String flightCode, String destination, String origin,
                   int economySeats, int businessSeats) {
+        this(flightCode, destination, origin, Cabin.standardLayout(economySeats, businessSeats));
+    }
+
+    public Flight(String flightCode, String destination, String origin, List<Cabin> cabins) {
         this.flightCode = flightCode.toUpperCase();
         this.destination = destination;
         this.origin = origin;
-        this.totalEconomySeats = economySeats;
-        this.totalBusinessSeats = businessSeats;
-        this.availableEconomySeats = economySeats;
-        this.availableBusinessSeats = businessSeats;
-        this.passengers = new HashMap<>();
+        this.seatMap = new SeatMap(cabins);
+        this.totalEconomySeats = seatMap.getCapacity(Passenger.TicketClass.ECONOMY);
+        this.totalBusinessSeats = seatMap.getCapacity(Passenger.TicketClass.BUSINESS);
+        this.availableEconomySeats = new AtomicInteger(totalEconomySeats);
+        this.availableBusinessSeats = new AtomicInteger(totalBusinessSeats);
+        this.passengers = new ConcurrentHashMap<>();
         this.status = FlightStatus.SCHEDULED;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.waitlist = new Waitlist();
         this.departureTime = LocalDateTime.now().plusHours(2); // Default 2 hours from now
         this.arrivalTime = departureTime.plusHours(3); // Default 3-hour flight
     }
@@ -57,44 +98,431 @@ public class Flight {
             throw new IllegalStateException("Passenger already boarded on this flight");
         }
 
-        if (status != FlightStatus.SCHEDULED && status != FlightStatus.BOARDING) {
-            throw new IllegalStateException("Cannot board passengers. Flight status: " + status.getDisplayName());
+        FlightStatus currentStatus = status;
+        if (currentStatus != FlightStatus.SCHEDULED && currentStatus != FlightStatus.BOARDING) {
+            throw new IllegalStateException("Cannot board passengers. Flight status: " + currentStatus.getDisplayName());
         }
 
-        boolean seatAvailable = false;
+        return book(passenger, ticketClass);
+    }
+
+    // Boards the passenger if the cabin has room, otherwise queues them for the next free seat
+    public BoardingResult.Outcome boardOrWaitlist(Passenger passenger, Passenger.TicketClass ticketClass,
+                                                  int priority) {
+        if (boardPassenger(passenger, ticketClass)) {
+            return BoardingResult.Outcome.BOARDED;
+        }
+        if (!waitlist.add(passenger, ticketClass, priority)) {
+            throw new IllegalStateException("Passenger already on the waitlist for this flight");
+        }
+        // A seat freed between the failed claim and joining would otherwise wait for the next release
+        promoteWaitlisted(ticketClass);
+        return passengers.containsKey(passenger.getPassengerId())
+                ? BoardingResult.Outcome.BOARDED : BoardingResult.Outcome.WAITLISTED;
+    }
 
-        if (ticketClass == Passenger.TicketClass.ECONOMY && availableEconomySeats > 0) {
-            availableEconomySeats--;
-            seatAvailable = true;
-        } else if (ticketClass == Passenger.TicketClass.BUSINESS && availableBusinessSeats > 0) {
-            availableBusinessSeats--;
-            seatAvailable = true;
+    // Takes a seat out of availability for a SeatHold; returns the seat, or -1 if the cabin is full
+    int holdSeat(Passenger passenger, Passenger.TicketClass ticketClass) {
+        if (passengers.containsKey(passenger.getPassengerId())) {
+            throw new IllegalStateException("Passenger already boarded on this flight");
+        }
+        FlightStatus currentStatus = status;
+        if (currentStatus != FlightStatus.SCHEDULED && currentStatus != FlightStatus.BOARDING) {
+            throw new IllegalStateException("Cannot hold seats. Flight status: " + currentStatus.getDisplayName());
         }
+        if (!tryClaimSeat(seatCounter(ticketClass))) {
+            return -1;
+        }
+        return seatMap.assign(ticketClass);
+    }
 
-        if (seatAvailable) {
-            passenger.setTicketClass(ticketClass);
-            passengers.put(passenger.getPassengerId(), passenger);
-            return true;
+    // Books a held seat; if boarding has closed or the passenger is already on board, the seat is given back
+    boolean confirmHeldSeat(Passenger passenger, Passenger.TicketClass ticketClass, int seat) {
+        FlightStatus currentStatus = status;
+        if (currentStatus != FlightStatus.SCHEDULED && currentStatus != FlightStatus.BOARDING) {
+            releaseHeldSeat(ticketClass, seat);
+            return false;
+        }
+        if (!commitBooking(passenger, ticketClass, seat)) {
+            promoteWaitlisted(ticketClass);
+            return false;
         }
+        return true;
+    }
 
-        return false;
+    void releaseHeldSeat(Passenger.TicketClass ticketClass, int seat) {
+        releaseSeat(ticketClass, seat);
+        promoteWaitlisted(ticketClass);
     }
 
-    public boolean removePassenger(String passengerId) {
-        Passenger removed = passengers.remove(passengerId);
-        if (removed != null) {
-            if (removed.getTicketClass() == Passenger.TicketClass.ECONOMY) {
-                availableEconomySeats++;
+    private void releaseSeat(Passenger.TicketClass ticketClass, int seat) {
+        seatMap.release(seat);
+        seatCounter(ticketClass).incrementAndGet();
+        for (FlightListener listener : listeners) {
+            listener.onSeatsReleased(this, ticketClass);
+        }
+    }
+
+    public boolean leaveWaitlist(String passengerId) {
+        return waitlist.remove(passengerId);
+    }
+
+    public Waitlist getWaitlist() {
+        return waitlist;
+    }
+
+    // Fills free seats of a cabin from its waitlist, best first; runs wherever a seat may come free
+    private void promoteWaitlisted(Passenger.TicketClass ticketClass) {
+        FlightStatus currentStatus = status;
+        if (waitlist.isEmpty() || (currentStatus != FlightStatus.SCHEDULED && currentStatus != FlightStatus.BOARDING)) {
+            return;
+        }
+        AtomicInteger seats = seatCounter(ticketClass);
+        synchronized (waitlist) {
+            Passenger next;
+            while ((next = waitlist.peek(ticketClass)) != null && tryClaimSeat(seats)) {
+                waitlist.poll(ticketClass);
+                // Someone boarded directly while waiting: the seat is handed back and the loop goes on
+                commitBooking(next, ticketClass, seatMap.assign(ticketClass));
+            }
+        }
+    }
+
+    // Re-applies a booking from persisted state; the flight may already be past boarding.
+    // The recorded seat is kept if it is still free, otherwise the passenger gets the next one.
+    boolean restoreBooking(Passenger passenger, Passenger.TicketClass ticketClass, int seat) {
+        if (passengers.containsKey(passenger.getPassengerId()) || !tryClaimSeat(seatCounter(ticketClass))) {
+            return false;
+        }
+        if (seat < 0 || !seatMap.assign(seat, ticketClass)) {
+            seat = seatMap.assign(ticketClass);
+        }
+        return commitBooking(passenger, ticketClass, seat, false);
+    }
+
+    private boolean book(Passenger passenger, Passenger.TicketClass ticketClass) {
+        AtomicInteger seats = seatCounter(ticketClass);
+        if (!tryClaimSeat(seats)) {
+            return false;
+        }
+
+        // Another desk may have boarded the same passenger, or boarding closed, since the checks
+        if (!commitBooking(passenger, ticketClass, seatMap.assign(ticketClass))) {
+            FlightStatus currentStatus = status;
+            if (currentStatus != FlightStatus.SCHEDULED && currentStatus != FlightStatus.BOARDING) {
+                throw new IllegalStateException("Cannot board passengers. Flight status: "
+                        + currentStatus.getDisplayName());
+            }
+            throw new IllegalStateException(passenger.isRegistered()
+                    ? "Passenger already boarded on this flight" : "Passenger is no longer registered");
+        }
+        return true;
+    }
+
+    // Boards a group under one critical section: status is checked once, and seats are claimed
+    // per cabin with a single CAS for the whole group rather than one per passenger.
+    // Single-passenger boarding stays lock-free and competes for seats through the same counters.
+    public synchronized BoardingResult.Outcome[] boardAll(Passenger[] group, Passenger.TicketClass[] classes) {
+        BoardingResult.Outcome[] outcomes = new BoardingResult.Outcome[group.length];
+        FlightStatus currentStatus = status;
+        if (currentStatus != FlightStatus.SCHEDULED && currentStatus != FlightStatus.BOARDING) {
+            Arrays.fill(outcomes, BoardingResult.Outcome.FLIGHT_NOT_BOARDING);
+            return outcomes;
+        }
+
+        int economyWanted = 0;
+        int businessWanted = 0;
+        Set<String> seen = new HashSet<>();
+        boolean[] repeated = new boolean[group.length];
+        for (int i = 0; i < group.length; i++) {
+            String passengerId = group[i].getPassengerId();
+            if (passengers.containsKey(passengerId)) {
+                outcomes[i] = BoardingResult.Outcome.ALREADY_BOARDED;
+            } else if (!seen.add(passengerId)) {
+                repeated[i] = true; // settled after the first request for this passenger
+            } else if (classes[i] == Passenger.TicketClass.BUSINESS) {
+                businessWanted++;
+            } else {
+                economyWanted++;
+            }
+        }
+
+        int economyLeft = claimSeats(availableEconomySeats, economyWanted);
+        int businessLeft = claimSeats(availableBusinessSeats, businessWanted);
+        for (int i = 0; i < group.length; i++) {
+            if (outcomes[i] != null || repeated[i]) {
+                continue;
+            }
+            boolean business = classes[i] == Passenger.TicketClass.BUSINESS;
+            if (business ? businessLeft == 0 : economyLeft == 0) {
+                outcomes[i] = BoardingResult.Outcome.NO_SEAT_AVAILABLE;
+                continue;
+            }
+            if (business) {
+                businessLeft--;
             } else {
-                availableBusinessSeats++;
+                economyLeft--;
             }
-            return true;
+            outcomes[i] = commitBooking(group[i], classes[i], seatMap.assign(classes[i]))
+                    ? BoardingResult.Outcome.BOARDED : rejected(group[i]);
         }
-        return false;
+
+        // A repeated request only matters if the earlier one did not board, e.g. another cabin
+        for (int i = 0; i < group.length; i++) {
+            if (!repeated[i]) {
+                continue;
+            }
+            if (passengers.containsKey(group[i].getPassengerId())) {
+                outcomes[i] = BoardingResult.Outcome.ALREADY_BOARDED;
+            } else if (!tryClaimSeat(seatCounter(classes[i]))) {
+                outcomes[i] = BoardingResult.Outcome.NO_SEAT_AVAILABLE;
+            } else {
+                outcomes[i] = commitBooking(group[i], classes[i], seatMap.assign(classes[i]))
+                        ? BoardingResult.Outcome.BOARDED : rejected(group[i]);
+            }
+        }
+        return outcomes;
+    }
+
+    // Seats a party of one cabin class side by side when a row has room, otherwise wherever
+    // seats are free. Members already on board are skipped; if the rest do not all fit,
+    // nobody is boarded so the party is never split across flights.
+    public synchronized BoardingResult.Outcome[] boardTogether(Passenger[] party, Passenger.TicketClass ticketClass) {
+        BoardingResult.Outcome[] outcomes = new BoardingResult.Outcome[party.length];
+        FlightStatus currentStatus = status;
+        if (currentStatus != FlightStatus.SCHEDULED && currentStatus != FlightStatus.BOARDING) {
+            Arrays.fill(outcomes, BoardingResult.Outcome.FLIGHT_NOT_BOARDING);
+            return outcomes;
+        }
+
+        int wanted = 0;
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < party.length; i++) {
+            String passengerId = party[i].getPassengerId();
+            if (passengers.containsKey(passengerId) || !seen.add(passengerId)) {
+                outcomes[i] = BoardingResult.Outcome.ALREADY_BOARDED;
+            } else {
+                wanted++;
+            }
+        }
+        if (wanted == 0) {
+            return outcomes;
+        }
+
+        AtomicInteger seats = seatCounter(ticketClass);
+        int granted = claimSeats(seats, wanted);
+        if (granted < wanted) {
+            seats.addAndGet(granted);
+            for (int i = 0; i < party.length; i++) {
+                if (outcomes[i] == null) {
+                    outcomes[i] = BoardingResult.Outcome.NO_SEAT_AVAILABLE;
+                }
+            }
+            return outcomes;
+        }
+
+        int[] assigned = new int[wanted];
+        if (!seatMap.assignAdjacent(ticketClass, wanted, assigned)) {
+            for (int k = 0; k < wanted; k++) {
+                assigned[k] = seatMap.assign(ticketClass);
+            }
+        }
+        int next = 0;
+        for (int i = 0; i < party.length; i++) {
+            if (outcomes[i] == null) {
+                outcomes[i] = commitBooking(party[i], ticketClass, assigned[next++])
+                        ? BoardingResult.Outcome.BOARDED : rejected(party[i]);
+            }
+        }
+        return outcomes;
+    }
+
+    // Counter seat already claimed and physical seat assigned; both are given back if the
+    // passenger turns out to be on board already
+    private boolean commitBooking(Passenger passenger, Passenger.TicketClass ticketClass, int seat) {
+        return commitBooking(passenger, ticketClass, seat, true);
+    }
+
+    private boolean commitBooking(Passenger passenger, Passenger.TicketClass ticketClass, int seat,
+                                  boolean requireOpen) {
+        String passengerId = passenger.getPassengerId();
+        boolean registered;
+        synchronized (bookingLock(passengerId)) {
+            if (passengers.putIfAbsent(passengerId, new Booking(passenger, ticketClass, seat)) != null) {
+                seatMap.release(seat);
+                seatCounter(ticketClass).incrementAndGet();
+                return false;
+            }
+            registered = passenger.trySetTicketClass(ticketClass);
+            for (FlightListener listener : listeners) {
+                listener.onPassengerBoarded(this, passenger, ticketClass, seat);
+            }
+        }
+        if (!waitlist.isEmpty()) {
+            waitlist.remove(passengerId);
+        }
+        // The manager takes a passenger out of the registry before cancelling their bookings, so a
+        // booking that lands behind that cancel pass is caught here and undone like any other.
+        // Likewise the status was checked before the seat was claimed: a booking published after
+        // boarding closed is undone, so none outlives setStatus(DEPARTED) that was not there before it.
+        FlightStatus currentStatus = status;
+        if (!registered || !passenger.isRegistered() || (requireOpen
+                && currentStatus != FlightStatus.SCHEDULED && currentStatus != FlightStatus.BOARDING)) {
+            removePassenger(passengerId);
+            return false;
+        }
+        return true;
+    }
+
+    // Why a group booking did not commit: group calls hold the flight monitor, so boarding is
+    // still open and the passenger is either on board already or was removed meanwhile
+    private static BoardingResult.Outcome rejected(Passenger passenger) {
+        return passenger.isRegistered()
+                ? BoardingResult.Outcome.ALREADY_BOARDED : BoardingResult.Outcome.PASSENGER_NOT_FOUND;
+    }
+
+    public boolean removePassenger(String passengerId) {
+        Booking removed;
+        synchronized (bookingLock(passengerId)) {
+            removed = passengers.remove(passengerId);
+            if (removed == null) {
+                return false;
+            }
+            for (FlightListener listener : listeners) {
+                listener.onPassengerRemoved(this, removed.passenger, removed.ticketClass);
+            }
+        }
+        // Handed back only once the removal is announced, so the seat's next booking follows it
+        releaseSeat(removed.ticketClass, removed.seat);
+        promoteWaitlisted(removed.ticketClass);
+        return true;
+    }
+
+    private static Object bookingLock(String passengerId) {
+        return BOOKING_LOCKS[(passengerId.hashCode() * 0x9E3779B9) >>> 24];
+    }
+
+    public Passenger.TicketClass getBookedClass(String passengerId) {
+        Booking booking = passengers.get(passengerId);
+        return booking != null ? booking.ticketClass : null;
+    }
+
+    // Seat label such as "12C", or null if the passenger is not booked
+    public String getSeat(String passengerId) {
+        Booking booking = passengers.get(passengerId);
+        return booking != null ? seatMap.getLabel(booking.seat) : null;
+    }
+
+    int getSeatNumber(String passengerId) {
+        Booking booking = passengers.get(passengerId);
+        return booking != null ? booking.seat : -1;
+    }
+
+    public List<Cabin> getCabins() {
+        return seatMap.getCabins();
+    }
+
+    SeatMap getSeatMap() {
+        return seatMap;
+    }
+
+    public String renderSeatMap() {
+        return seatMap.render();
+    }
+
+    // Takes a free seat out of service; it counts against availability until unblocked
+    public synchronized boolean blockSeat(String label) {
+        int seat = seatMap.findSeat(label);
+        if (seat < 0) {
+            throw new IllegalArgumentException("No such seat: " + label);
+        }
+        return blockSeat(seat);
+    }
+
+    synchronized boolean blockSeat(int seat) {
+        Passenger.TicketClass ticketClass = seatMap.getTicketClass(seat);
+        if (ticketClass == null) {
+            return false;
+        }
+        AtomicInteger seats = seatCounter(ticketClass);
+        if (!tryClaimSeat(seats)) {
+            return false;
+        }
+        if (!seatMap.block(seat)) {
+            seats.incrementAndGet();
+            return false;
+        }
+        for (FlightListener listener : listeners) {
+            listener.onSeatBlockChanged(this, seat, true);
+        }
+        return true;
+    }
+
+    public synchronized boolean unblockSeat(String label) {
+        int seat = seatMap.findSeat(label);
+        if (seat < 0) {
+            throw new IllegalArgumentException("No such seat: " + label);
+        }
+        return unblockSeat(seat);
+    }
+
+    synchronized boolean unblockSeat(int seat) {
+        if (!seatMap.unblock(seat)) {
+            return false;
+        }
+        Passenger.TicketClass ticketClass = seatMap.getTicketClass(seat);
+        seatCounter(ticketClass).incrementAndGet();
+        for (FlightListener listener : listeners) {
+            listener.onSeatBlockChanged(this, seat, false);
+        }
+        promoteWaitlisted(ticketClass);
+        return true;
+    }
+
+    private AtomicInteger seatCounter(Passenger.TicketClass ticketClass) {
+        return ticketClass == Passenger.TicketClass.BUSINESS ? availableBusinessSeats : availableEconomySeats;
+    }
+
+    private static int claimSeats(AtomicInteger seats, int wanted) {
+        if (wanted == 0) {
+            return 0;
+        }
+        int available;
+        int granted;
+        do {
+            available = seats.get();
+            granted = Math.min(available, wanted);
+            if (granted <= 0) {
+                return 0;
+            }
+        } while (!seats.compareAndSet(available, available - granted));
+        return granted;
+    }
+
+    private static boolean tryClaimSeat(AtomicInteger seats) {
+        int available;
+        do {
+            available = seats.get();
+            if (available <= 0) {
+                return false;
+            }
+        } while (!seats.compareAndSet(available, available - 1));
+        return true;
     }
 
     public List<Passenger> getPassengerList() {
-        return new ArrayList<>(passengers.values());
+        List<Passenger> list = new ArrayList<>(passengers.size());
+        for (Booking booking : passengers.values()) {
+            list.add(booking.passenger);
+        }
+        return list;
+    }
+
+    // Visits every booking once without copying the passenger list
+    public void forEachBooking(BookingVisitor visitor) {
+        for (Booking booking : passengers.values()) {
+            visitor.visit(booking.passenger, booking.ticketClass, booking.seat);
+        }
     }
 
     public int getTotalPassengers() {
@@ -106,6 +534,12 @@ public class Flight {
         return totalSeats > 0 ? (double) passengers.size() / totalSeats * 100 : 0;
     }
 
+    // Share of the cabin no longer for sale: booked, held or blocked seats
+    public double getOccupancyRate(Passenger.TicketClass ticketClass) {
+        int totalSeats = ticketClass == Passenger.TicketClass.BUSINESS ? totalBusinessSeats : totalEconomySeats;
+        return totalSeats > 0 ? (double) (totalSeats - seatCounter(ticketClass).get()) / totalSeats * 100 : 0;
+    }
+
     // Getters and Setters
     public String getFlightCode() {
         return flightCode;
@@ -115,40 +549,60 @@ public class Flight {
         return destination;
     }
 
-    public void setDestination(String destination) {
+    public synchronized void setDestination(String destination) {
+        String oldDestination = this.destination;
         this.destination = destination;
+        for (FlightListener listener : listeners) {
+            listener.onRouteChanged(this, origin, oldDestination);
+        }
     }
 
     public String getOrigin() {
         return origin;
     }
 
-    public void setOrigin(String origin) {
+    public synchronized void setOrigin(String origin) {
+        String oldOrigin = this.origin;
         this.origin = origin;
+        for (FlightListener listener : listeners) {
+            listener.onRouteChanged(this, oldOrigin, destination);
+        }
     }
 
     public LocalDateTime getDepartureTime() {
         return departureTime;
     }
 
-    public void setDepartureTime(LocalDateTime departureTime) {
+    public synchronized void setDepartureTime(LocalDateTime departureTime) {
+        LocalDateTime oldDeparture = this.departureTime;
         this.departureTime = departureTime;
+        for (FlightListener listener : listeners) {
+            listener.onScheduleChanged(this, oldDeparture, arrivalTime);
+        }
     }
 
     public LocalDateTime getArrivalTime() {
         return arrivalTime;
     }
 
-    public void setArrivalTime(LocalDateTime arrivalTime) {
+    public synchronized void setArrivalTime(LocalDateTime arrivalTime) {
+        LocalDateTime oldArrival = this.arrivalTime;
         this.arrivalTime = arrivalTime;
+        for (FlightListener listener : listeners) {
+            listener.onScheduleChanged(this, departureTime, oldArrival);
+        }
+    }
+
+    public int getAvailableSeats(Passenger.TicketClass ticketClass) {
+        return seatCounter(ticketClass).get();
     }
 
     public int getAvailableEconomySeats() {
-        return availableEconomySeats;
+        return availableEconomySeats.get();
     }
 
     public int getAvailableBusinessSeats() {
-        return availableBusinessSeats;
+        return availableBusinessSeats.get();
     }
 
     public int getTotalEconomySeats() {
@@ -163,8 +617,42 @@ public class Flight {
         return status;
     }
 
-    public void setStatus(FlightStatus status) {
+    // Setting the current status again is a no-op; any other change must be a valid transition
+    public synchronized void setStatus(FlightStatus status) {
+        FlightStatus oldStatus = this.status;
+        if (status == oldStatus) {
+            return;
+        }
+        if (!oldStatus.canTransitionTo(status)) {
+            throw new IllegalStateException("Flight " + flightCode + " cannot change from "
+                    + oldStatus.getDisplayName() + " to " + status.getDisplayName());
+        }
+        changeStatus(oldStatus, status);
+    }
+
+    // Re-applies a persisted status without transition checks; older logs may hold any sequence
+    synchronized void restoreStatus(FlightStatus status) {
+        if (status != this.status) {
+            changeStatus(this.status, status);
+        }
+    }
+
+    private void changeStatus(FlightStatus oldStatus, FlightStatus status) {
         this.status = status;
+        for (FlightListener listener : listeners) {
+            listener.onStatusChanged(this, oldStatus, status);
+        }
+        // Seats freed while boarding was suspended go to the waitlist once it reopens
+        promoteWaitlisted(Passenger.TicketClass.BUSINESS);
+        promoteWaitlisted(Passenger.TicketClass.ECONOMY);
+    }
+
+    public void addListener(FlightListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(FlightListener listener) {
+        listeners.remove(listener);
     }
 
     public String getFlightInfo() {
@@ -178,8 +666,8 @@ public class Flight {
                 flightCode, origin, destination,
                 status.getDisplayName(),
                 departureTime.format(formatter), arrivalTime.format(formatter),
-                availableEconomySeats, totalEconomySeats,
-                availableBusinessSeats, totalBusinessSeats,
+                availableEconomySeats.get(), totalEconomySeats,
+                availableBusinessSeats.get(), totalBusinessSeats,
                 getTotalPassengers(), getOccupancyRate()
         );
     }
@@ -188,4 +676,21 @@ public class Flight {
     public String toString() {
         return getFlightInfo();
     }
+
+    public interface BookingVisitor {
+        void visit(Passenger passenger, Passenger.TicketClass ticketClass, int seat);
+    }
+
+    // The cabin is fixed per booking; Passenger.getTicketClass() only reflects the latest one
+    private static final class Booking {
+        private final Passenger passenger;
+        private final Passenger.TicketClass ticketClass;
+        private final int seat;
+
+        private Booking(Passenger passenger, Passenger.TicketClass ticketClass, int seat) {
+            this.passenger = passenger;
+            this.ticketClass = ticketClass;
+            this.seat = seat;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+// Immutable notification published on the FlightEventBus. Status events carry the old and new
+// status; boarding and removal events carry the passenger and the booked ticket class.
+public final class FlightEvent {
+    public enum Type {
+        STATUS_CHANGED,
+        PASSENGER_BOARDED,
+        PASSENGER_REMOVED
+    }
+
+    private final Type type;
+    private final String flightCode;
+    private final String passengerId;
+    private final Passenger.TicketClass ticketClass;
+    private final Flight.FlightStatus oldStatus;
+    private final Flight.FlightStatus newStatus;
+    private final long timestampMillis;
+
+    private FlightEvent(Type type, String flightCode, String passengerId, Passenger.TicketClass ticketClass,
+                        Flight.FlightStatus oldStatus, Flight.FlightStatus newStatus) {
+        this.type = type;
+        this.flightCode = flightCode;
+        this.passengerId = passengerId;
+        this.ticketClass = ticketClass;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+        this.timestampMillis = System.currentTimeMillis();
+    }
+
+    public static FlightEvent statusChanged(String flightCode, Flight.FlightStatus oldStatus,
+                                            Flight.FlightStatus newStatus) {
+        return new FlightEvent(Type.STATUS_CHANGED, flightCode, null, null, oldStatus, newStatus);
+    }
+
+    public static FlightEvent passengerBoarded(String flightCode, String passengerId,
+                                               Passenger.TicketClass ticketClass) {
+        return new FlightEvent(Type.PASSENGER_BOARDED, flightCode, passengerId, ticketClass, null, null);
+    }
+
+    public static FlightEvent passengerRemoved(String flightCode, String passengerId,
+                                               Passenger.TicketClass ticketClass) {
+        return new FlightEvent(Type.PASSENGER_REMOVED, flightCode, passengerId, ticketClass, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getFlightCode() {
+        return flightCode;
+    }
+
+    // Null for status events
+    public String getPassengerId() {
+        return passengerId;
+    }
+
+    public Passenger.TicketClass getTicketClass() {
+        return ticketClass;
+    }
+
+    // Null for boarding and removal events
+    public Flight.FlightStatus getOldStatus() {
+        return oldStatus;
+    }
+
+    public Flight.FlightStatus getNewStatus() {
+        return newStatus;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return switch (type) {
+            case STATUS_CHANGED -> "Flight " + flightCode + ": " + oldStatus.getDisplayName()
+                    + " -> " + newStatus.getDisplayName();
+            case PASSENGER_BOARDED -> "Flight " + flightCode + ": boarded " + passengerId
+                    + " (" + ticketClass.getName() + ")";
+            case PASSENGER_REMOVED -> "Flight " + flightCode + ": removed " + passengerId
+                    + " (" + ticketClass.getName() + ")";
+        };
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Publishes flight status changes, boardings and removals to subscribers without ever blocking
+// the thread that made the change.
+//
+// Events go into a fixed ring shared by all subscribers. Producers claim a sequence with a CAS
+// and mark the slot published; each subscription has its own thread that consumes every
+// published slot in order, in batches, and then advances its sequence, which frees the slots
+// for reuse. If the slowest subscriber is a full ring behind, new events are dropped and
+// counted rather than making the booking thread wait. With no subscribers publishing is free.
+public class FlightEventBus implements FlightListener, Closeable {
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_BATCH = 256;
+    private static final int SPIN_TRIES = 200;
+    private static final long PARK_NANOS = 1_000_000;
+
+    private final int capacity;
+    private final int mask;
+    private final FlightEvent[] events;
+    // published[i] is the sequence last written to slot i; consumers read the event only after seeing it
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    // Lowest subscriber sequence seen last time; rechecked only when the ring looks full
+    private volatile long gate = -1;
+
+    public FlightEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FlightEventBus(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.events = new FlightEvent[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    // Starts a consumer thread that sees every event published from now on
+    public synchronized Subscription subscribe(String name, FlightEventSubscriber subscriber) {
+        Subscription subscription = new Subscription(name, subscriber, claimed.get());
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    // Returns false if the event was dropped because a subscriber is too far behind
+    public boolean publish(FlightEvent event) {
+        if (subscriptions.isEmpty()) {
+            return true;
+        }
+        long sequence;
+        while (true) {
+            long current = claimed.get();
+            sequence = current + 1;
+            // Slot reuse requires every subscriber to be done with the event a full ring earlier
+            if (sequence - capacity > gate) {
+                long slowest = slowestSequence(current);
+                gate = slowest;
+                if (sequence - capacity > slowest) {
+                    dropped.increment();
+                    return false;
+                }
+            }
+            if (claimed.compareAndSet(current, sequence)) {
+                break;
+            }
+        }
+        int index = (int) sequence & mask;
+        events[index] = event;
+        published.setRelease(index, sequence);
+        for (Subscription subscription : subscriptions) {
+            if (subscription.parked) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+        return true;
+    }
+
+    private long slowestSequence(long current) {
+        long slowest = current;
+        for (Subscription subscription : subscriptions) {
+            slowest = Math.min(slowest, subscription.sequence);
+        }
+        return slowest;
+    }
+
+    public long getPublishedCount() {
+        return claimed.get() + 1;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return List.copyOf(subscriptions);
+    }
+
+    @Override
+    public void onStatusChanged(Flight flight, Flight.FlightStatus oldStatus, Flight.FlightStatus newStatus) {
+        if (!subscriptions.isEmpty()) {
+            publish(FlightEvent.statusChanged(flight.getFlightCode(), oldStatus, newStatus));
+        }
+    }
+
+    @Override
+    public void onPassengerBoarded(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass, int seat) {
+        if (!subscriptions.isEmpty()) {
+            publish(FlightEvent.passengerBoarded(flight.getFlightCode(), passenger.getPassengerId(), ticketClass));
+        }
+    }
+
+    @Override
+    public void onPassengerRemoved(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass) {
+        if (!subscriptions.isEmpty()) {
+            publish(FlightEvent.passengerRemoved(flight.getFlightCode(), passenger.getPassengerId(), ticketClass));
+        }
+    }
+
+    // Delivers what has already been published to every subscriber, then stops their threads
+    @Override
+    public void close() {
+        for (Subscription subscription : getSubscriptions()) {
+            subscription.close();
+        }
+    }
+
+    public final class Subscription implements Closeable {
+        private final String name;
+        private final FlightEventSubscriber subscriber;
+        private final Thread thread;
+        private final LongAdder failures = new LongAdder();
+        private final long startedAt;
+        // Last sequence fully handled by this subscriber
+        private volatile long sequence;
+        private volatile boolean parked;
+        private volatile boolean running = true;
+
+        private Subscription(String name, FlightEventSubscriber subscriber, long sequence) {
+            this.name = name;
+            this.subscriber = subscriber;
+            this.sequence = sequence;
+            this.startedAt = sequence;
+            this.thread = new Thread(this::consume, "flight-events-" + name);
+            thread.setDaemon(true);
+        }
+
+        private void consume() {
+            long next = sequence + 1;
+            int idle = 0;
+            while (true) {
+                int batch = 0;
+                while (batch < MAX_BATCH && published.getAcquire((int) (next + batch) & mask) == next + batch) {
+                    batch++;
+                }
+                if (batch == 0) {
+                    if (!running) {
+                        return;
+                    }
+                    idle = idle(idle, next);
+                    continue;
+                }
+                idle = 0;
+                for (int i = 0; i < batch; i++) {
+                    FlightEvent event = events[(int) (next + i) & mask];
+                    try {
+                        subscriber.onEvent(event, i == batch - 1);
+                    } catch (RuntimeException e) {
+                        failures.increment();
+                        System.err.println("Subscriber " + name + " failed on " + event + ": " + e.getMessage());
+                    }
+                }
+                next += batch;
+                sequence = next - 1;
+            }
+        }
+
+        // Spins briefly for low latency under load, then parks until a producer unparks it
+        private int idle(int idle, long next) {
+            if (idle < SPIN_TRIES) {
+                Thread.onSpinWait();
+                return idle + 1;
+            }
+            parked = true;
+            if (running && published.getAcquire((int) next & mask) != next) {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            parked = false;
+            return idle;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getProcessedCount() {
+            return sequence - startedAt;
+        }
+
+        // Events published but not yet handled by this subscriber
+        public long getLag() {
+            return Math.max(0, claimed.get() - sequence);
+        }
+
+        public long getFailureCount() {
+            return failures.sum();
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+// Receives FlightEventBus events on the subscription's own thread, in publication order.
+// endOfBatch marks the last event currently available, a good point to flush buffered output.
+public interface FlightEventSubscriber {
+    void onEvent(FlightEvent event, boolean endOfBatch);
+}
@@ -0,0 +1,200 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Moves flights through Scheduled -> Boarding -> Departed -> Arrived as the clock passes their
+// departure and arrival times. Boarding opens boardingLead before departure, a flight departs
+// departureGrace after its departure time and arrives arrivalGrace after its arrival time.
+// A delayed flight is held until its departure time is edited, then boards as the new
+// departure approaches.
+//
+// Each tracked flight has exactly one pending timer, for its next transition, in a timing
+// wheel. Schedule and status changes re-arm it through the listener callbacks, so operator
+// edits and manual status changes are picked up at once. Transitions run outside the
+// scheduler's lock, because they take the flight's monitor and call back into this class.
+public class FlightLifecycleScheduler implements FlightListener, AutoCloseable {
+    private static final long DEFAULT_TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+
+    private final Clock clock;
+    private final Duration boardingLead;
+    private final Duration departureGrace;
+    private final Duration arrivalGrace;
+    private final long tickMillis;
+    private final TimingWheel<Flight> wheel;
+    // Tracked flights and their pending timer; null once nothing is left to do or while held
+    private final Map<Flight, TimingWheel.Timer<Flight>> timers = new HashMap<>();
+    // Delayed flights whose departure has been edited since the delay
+    private final Set<Flight> resumed = new HashSet<>();
+    // Flights whose next transition was already due when armed; run by the next advance()
+    private final List<Flight> overdue = new ArrayList<>();
+    private ScheduledExecutorService ticker;
+
+    public FlightLifecycleScheduler(Clock clock, Duration boardingLead) {
+        this(clock, boardingLead, Duration.ZERO, Duration.ZERO, DEFAULT_TICK_MILLIS);
+    }
+
+    public FlightLifecycleScheduler(Clock clock, Duration boardingLead, Duration departureGrace,
+                                    Duration arrivalGrace, long tickMillis) {
+        if (boardingLead.isNegative() || departureGrace.isNegative() || arrivalGrace.isNegative()) {
+            throw new IllegalArgumentException("Offsets must not be negative");
+        }
+        this.clock = clock;
+        this.boardingLead = boardingLead;
+        this.departureGrace = departureGrace;
+        this.arrivalGrace = arrivalGrace;
+        this.tickMillis = tickMillis;
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, clock.millis());
+    }
+
+    // Arms the flight's next transition; if it is already due it runs on the next advance()
+    public synchronized void track(Flight flight) {
+        rearm(flight, true);
+    }
+
+    public synchronized void untrack(Flight flight) {
+        wheel.cancel(timers.remove(flight));
+        resumed.remove(flight);
+        overdue.remove(flight);
+    }
+
+    public synchronized int getTrackedCount() {
+        return timers.size();
+    }
+
+    // Applies every transition due by the clock's current time; overdue flights catch up in one call
+    public void advance() {
+        List<Flight> due = new ArrayList<>();
+        while (true) {
+            synchronized (this) {
+                wheel.advance(clock.millis(), due::add);
+                due.addAll(overdue);
+                overdue.clear();
+            }
+            if (due.isEmpty()) {
+                return;
+            }
+            for (Flight flight : due) {
+                transition(flight);
+            }
+            due.clear();
+        }
+    }
+
+    // Ticks on a daemon thread until closed; tests call advance() with their own clock instead
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "flight-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                System.err.println("Flight lifecycle update failed: " + e.getMessage());
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    private void transition(Flight flight) {
+        synchronized (flight) {
+            Flight.FlightStatus current = flight.getStatus();
+            Flight.FlightStatus next = nextStatus(current);
+            boolean due;
+            synchronized (this) {
+                due = timers.containsKey(flight) && clock.millis() >= deadline(flight, current);
+            }
+            if (next != null && due) {
+                // The status listener re-arms the timer for the following step
+                flight.setStatus(next);
+            } else {
+                synchronized (this) {
+                    rearm(flight, false);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onScheduleChanged(Flight flight, LocalDateTime oldDeparture, LocalDateTime oldArrival) {
+        synchronized (this) {
+            if (flight.getStatus() == Flight.FlightStatus.DELAYED && timers.containsKey(flight)) {
+                resumed.add(flight);
+            }
+            rearm(flight, false);
+        }
+    }
+
+    @Override
+    public void onStatusChanged(Flight flight, Flight.FlightStatus oldStatus, Flight.FlightStatus newStatus) {
+        synchronized (this) {
+            resumed.remove(flight);
+            rearm(flight, false);
+        }
+    }
+
+    // Must hold this lock; an untracked flight stays untracked unless track() is asking
+    private void rearm(Flight flight, boolean tracking) {
+        if (!tracking && !timers.containsKey(flight)) {
+            return;
+        }
+        wheel.cancel(timers.get(flight));
+        long deadline = deadline(flight, flight.getStatus());
+        if (deadline == Long.MAX_VALUE) {
+            // Held, arrived or cancelled; stays tracked so a later change re-arms it
+            timers.put(flight, null);
+            return;
+        }
+        TimingWheel.Timer<Flight> timer = wheel.schedule(deadline, flight);
+        if (timer == null) {
+            overdue.add(flight);
+        }
+        timers.put(flight, timer);
+    }
+
+    private static Flight.FlightStatus nextStatus(Flight.FlightStatus status) {
+        return switch (status) {
+            case SCHEDULED, DELAYED -> Flight.FlightStatus.BOARDING;
+            case BOARDING -> Flight.FlightStatus.DEPARTED;
+            case DEPARTED -> Flight.FlightStatus.ARRIVED;
+            case ARRIVED, CANCELLED -> null;
+        };
+    }
+
+    // Must hold this lock; Long.MAX_VALUE means no automatic transition
+    private long deadline(Flight flight, Flight.FlightStatus status) {
+        return switch (status) {
+            case SCHEDULED -> toMillis(flight.getDepartureTime()) - boardingLead.toMillis();
+            case DELAYED -> resumed.contains(flight)
+                    ? toMillis(flight.getDepartureTime()) - boardingLead.toMillis() : Long.MAX_VALUE;
+            case BOARDING -> toMillis(flight.getDepartureTime()) + departureGrace.toMillis();
+            case DEPARTED -> toMillis(flight.getArrivalTime()) + arrivalGrace.toMillis();
+            case ARRIVED, CANCELLED -> Long.MAX_VALUE;
+        };
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,30 @@
+import java.time.LocalDateTime;
+
+// Callbacks fired by Flight when state that secondary indexes depend on changes.
+// Listeners run synchronously on the mutating thread: route, schedule, status and seat
+// blocking changes are delivered under the flight's monitor, booking changes are lock-free and may arrive
+// concurrently, so listeners must be quick and thread-safe. Booking events of one passenger are
+// delivered one at a time, in the order the bookings changed.
+public interface FlightListener {
+    default void onRouteChanged(Flight flight, String oldOrigin, String oldDestination) {
+    }
+
+    default void onScheduleChanged(Flight flight, LocalDateTime oldDeparture, LocalDateTime oldArrival) {
+    }
+
+    default void onStatusChanged(Flight flight, Flight.FlightStatus oldStatus, Flight.FlightStatus newStatus) {
+    }
+
+    default void onPassengerBoarded(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass, int seat) {
+    }
+
+    default void onPassengerRemoved(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass) {
+    }
+
+    default void onSeatBlockChanged(Flight flight, int seat, boolean blocked) {
+    }
+
+    // A booked or held seat went back on sale, after any removal event for it
+    default void onSeatsReleased(Flight flight, Passenger.TicketClass ticketClass) {
+    }
+}
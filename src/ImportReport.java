@@ -0,0 +1,76 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of a bulk import: counts, throughput and the first rejected rows with reasons
+public class ImportReport {
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final List<RowError> errors;
+    private final Duration elapsed;
+
+    public ImportReport(long rowsRead, long imported, long rejected, List<RowError> errors, Duration elapsed) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+        this.elapsed = elapsed;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    // Capped, so a completely broken file cannot exhaust memory; getRejected() has the full count
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public double getRowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds > 0 ? rowsRead / seconds : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Read %d rows in %.2f s (%.0f rows/s): %d imported, %d rejected",
+                rowsRead, elapsed.toNanos() / 1_000_000_000.0, getRowsPerSecond(), imported, rejected);
+    }
+
+    public static class RowError {
+        private final long lineNumber;
+        private final String message;
+
+        public RowError(long lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+// AirportManager that times its public operations into AirportMetrics. Calls made internally
+// through an overridden method (e.g. boardPassengerByName -> boardPassenger) are counted
+// under that operation as well.
+public class InstrumentedAirportManager extends AirportManager {
+    private final AirportMetrics metrics;
+
+    public InstrumentedAirportManager(AirportMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public AirportMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Passenger addPassenger(String name, int age, String address, double baggageWeight) {
+        long start = metrics.start();
+        try {
+            Passenger passenger = super.addPassenger(name, age, address, baggageWeight);
+            metrics.success(AirportMetrics.Operation.ADD_PASSENGER, start);
+            return passenger;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.ADD_PASSENGER, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Passenger addPassenger(String passengerId, String name, int age, String address, double baggageWeight) {
+        long start = metrics.start();
+        try {
+            Passenger passenger = super.addPassenger(passengerId, name, age, address, baggageWeight);
+            metrics.success(AirportMetrics.Operation.ADD_PASSENGER, start);
+            return passenger;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.ADD_PASSENGER, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean removePassenger(String passengerId) {
+        long start = metrics.start();
+        try {
+            boolean removed = super.removePassenger(passengerId);
+            metrics.success(AirportMetrics.Operation.REMOVE_PASSENGER, start);
+            return removed;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.REMOVE_PASSENGER, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Passenger> findPassengersByName(String name) {
+        long start = metrics.start();
+        try {
+            List<Passenger> found = super.findPassengersByName(name);
+            metrics.success(AirportMetrics.Operation.FIND_PASSENGERS_BY_NAME, start);
+            return found;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.FIND_PASSENGERS_BY_NAME, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean renamePassenger(String passengerId, String name) {
+        long start = metrics.start();
+        try {
+            boolean renamed = super.renamePassenger(passengerId, name);
+            metrics.success(AirportMetrics.Operation.RENAME_PASSENGER, start);
+            return renamed;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.RENAME_PASSENGER, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public int cancelBookings(String passengerId) {
+        long start = metrics.start();
+        try {
+            int cancelled = super.cancelBookings(passengerId);
+            metrics.success(AirportMetrics.Operation.CANCEL_BOOKINGS, start);
+            return cancelled;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.CANCEL_BOOKINGS, start, e);
+            throw e;
+        }
+    }
+
+    // The seat-count overload delegates here, so every flight is counted once
+    @Override
+    public Flight addFlight(String flightCode, String destination, String origin, List<Cabin> cabins) {
+        long start = metrics.start();
+        try {
+            Flight flight = super.addFlight(flightCode, destination, origin, cabins);
+            metrics.success(AirportMetrics.Operation.ADD_FLIGHT, start);
+            return flight;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.ADD_FLIGHT, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean removeFlight(String flightCode) {
+        long start = metrics.start();
+        try {
+            boolean removed = super.removeFlight(flightCode);
+            metrics.success(AirportMetrics.Operation.REMOVE_FLIGHT, start);
+            return removed;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.REMOVE_FLIGHT, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Flight> findFlightsByDestination(String destination) {
+        long start = metrics.start();
+        try {
+            List<Flight> found = super.findFlightsByDestination(destination);
+            metrics.success(AirportMetrics.Operation.FIND_FLIGHTS_BY_DESTINATION, start);
+            return found;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.FIND_FLIGHTS_BY_DESTINATION, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean boardPassenger(String passengerId, String flightCode, Passenger.TicketClass ticketClass) {
+        long start = metrics.start();
+        try {
+            boolean boarded = super.boardPassenger(passengerId, flightCode, ticketClass);
+            if (!boarded) {
+                metrics.cabinFull(ticketClass, start);
+            }
+            metrics.success(AirportMetrics.Operation.BOARD_PASSENGER, start);
+            return boarded;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.BOARD_PASSENGER, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<BoardingResult> boardAll(Collection<BoardingRequest> requests) {
+        long start = metrics.start();
+        try {
+            List<BoardingResult> results = super.boardAll(requests);
+            countCabinFull(results, start);
+            metrics.success(AirportMetrics.Operation.BOARD_ALL, start);
+            return results;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.BOARD_ALL, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<BoardingResult> boardTogether(List<String> passengerIds, String flightCode,
+                                              Passenger.TicketClass ticketClass) {
+        long start = metrics.start();
+        try {
+            List<BoardingResult> results = super.boardTogether(passengerIds, flightCode, ticketClass);
+            countCabinFull(results, start);
+            metrics.success(AirportMetrics.Operation.BOARD_TOGETHER, start);
+            return results;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.BOARD_TOGETHER, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public BoardingResult.Outcome boardOrWaitlist(String passengerId, String flightCode,
+                                                  Passenger.TicketClass ticketClass, int priority) {
+        long start = metrics.start();
+        try {
+            BoardingResult.Outcome outcome = super.boardOrWaitlist(passengerId, flightCode, ticketClass, priority);
+            metrics.success(AirportMetrics.Operation.BOARD_OR_WAITLIST, start);
+            return outcome;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.BOARD_OR_WAITLIST, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean unboardPassenger(String passengerId, String flightCode) {
+        long start = metrics.start();
+        try {
+            boolean unboarded = super.unboardPassenger(passengerId, flightCode);
+            metrics.success(AirportMetrics.Operation.UNBOARD_PASSENGER, start);
+            return unboarded;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.UNBOARD_PASSENGER, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean leaveWaitlist(String passengerId, String flightCode) {
+        long start = metrics.start();
+        try {
+            boolean left = super.leaveWaitlist(passengerId, flightCode);
+            metrics.success(AirportMetrics.Operation.LEAVE_WAITLIST, start);
+            return left;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.LEAVE_WAITLIST, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public ItineraryResult bookItinerary(List<String> passengerIds, List<String> flightCodes,
+                                         Passenger.TicketClass ticketClass) {
+        long start = metrics.start();
+        try {
+            ItineraryResult result = super.bookItinerary(passengerIds, flightCodes, ticketClass);
+            if (result.getOutcome() == BoardingResult.Outcome.NO_SEAT_AVAILABLE) {
+                metrics.cabinFull(ticketClass, start);
+            }
+            metrics.success(AirportMetrics.Operation.BOOK_ITINERARY, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.BOOK_ITINERARY, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public SeatHold holdSeat(String passengerId, String flightCode, Passenger.TicketClass ticketClass,
+                             Duration ttl) {
+        long start = metrics.start();
+        try {
+            SeatHold hold = super.holdSeat(passengerId, flightCode, ticketClass, ttl);
+            if (hold == null) {
+                metrics.cabinFull(ticketClass, start);
+            }
+            metrics.success(AirportMetrics.Operation.HOLD_SEAT, start);
+            return hold;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.HOLD_SEAT, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean confirmHold(String holdId) {
+        long start = metrics.start();
+        try {
+            boolean confirmed = super.confirmHold(holdId);
+            metrics.success(AirportMetrics.Operation.CONFIRM_HOLD, start);
+            return confirmed;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.CONFIRM_HOLD, start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean releaseHold(String holdId) {
+        long start = metrics.start();
+        try {
+            boolean released = super.releaseHold(holdId);
+            metrics.success(AirportMetrics.Operation.RELEASE_HOLD, start);
+            return released;
+        } catch (RuntimeException e) {
+            metrics.failure(AirportMetrics.Operation.RELEASE_HOLD, start, e);
+            throw e;
+        }
+    }
+
+    private void countCabinFull(List<BoardingResult> results, long start) {
+        for (BoardingResult result : results) {
+            if (result.getOutcome() == BoardingResult.Outcome.NO_SEAT_AVAILABLE) {
+                metrics.cabinFull(result.getRequest().getTicketClass(), start);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+// Outcome of an all-or-nothing itinerary booking: either every passenger holds a seat on every
+// leg, or nobody was booked and the first failure names the leg, passenger and reason.
+public class ItineraryResult {
+    private static final ItineraryResult BOOKED = new ItineraryResult(BoardingResult.Outcome.BOARDED, null, null);
+
+    private final BoardingResult.Outcome outcome;
+    private final String flightCode;
+    private final String passengerId;
+
+    private ItineraryResult(BoardingResult.Outcome outcome, String flightCode, String passengerId) {
+        this.outcome = outcome;
+        this.flightCode = flightCode;
+        this.passengerId = passengerId;
+    }
+
+    static ItineraryResult booked() {
+        return BOOKED;
+    }
+
+    static ItineraryResult failed(BoardingResult.Outcome outcome, String flightCode, String passengerId) {
+        return new ItineraryResult(outcome, flightCode, passengerId);
+    }
+
+    public boolean isBooked() {
+        return outcome == BoardingResult.Outcome.BOARDED;
+    }
+
+    public BoardingResult.Outcome getOutcome() {
+        return outcome;
+    }
+
+    // Leg that could not be booked, or null on success
+    public String getFailedFlightCode() {
+        return flightCode;
+    }
+
+    // Passenger that could not be booked, or null on success or when the whole leg failed
+    public String getFailedPassengerId() {
+        return passengerId;
+    }
+
+    @Override
+    public String toString() {
+        if (isBooked()) {
+            return "Itinerary booked";
+        }
+        return "Itinerary not booked: " + outcome.getDisplayName()
+                + (flightCode != null ? " on " + flightCode : "")
+                + (passengerId != null ? " for " + passengerId : "");
+    }
+}
@@ -0,0 +1,116 @@
+// Open-addressing map from primitive long keys to non-negative int values, with no boxing
+// and no per-entry nodes. Linear probing with backward-shift deletion, so there are no
+// tombstones. Not thread-safe: the owner guards it with its own lock.
+public class LongIntMap {
+    public static final int MISSING = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] keys;
+    private int[] values; // value + 1, so 0 marks an empty slot
+    private int size;
+
+    public LongIntMap() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new int[INITIAL_CAPACITY];
+    }
+
+    public int get(long key) {
+        int mask = keys.length - 1;
+        int i = (int) mix(key) & mask;
+        while (values[i] != 0) {
+            if (keys[i] == key) {
+                return values[i] - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    // Returns the existing value, or MISSING if the key was absent and is now mapped
+    public int putIfAbsent(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Values must not be negative");
+        }
+        int mask = keys.length - 1;
+        int i = (int) mix(key) & mask;
+        while (values[i] != 0) {
+            if (keys[i] == key) {
+                return values[i] - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value + 1;
+        size++;
+        if (size * 3 > keys.length * 2) {
+            resize();
+        }
+        return MISSING;
+    }
+
+    public int remove(long key) {
+        int mask = keys.length - 1;
+        int i = (int) mix(key) & mask;
+        while (values[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == 0) {
+            return MISSING;
+        }
+        int removed = values[i] - 1;
+        values[i] = 0;
+        size--;
+
+        // Pull later entries of the probe run back into the gap they would otherwise skip
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (values[j] == 0) {
+                break;
+            }
+            int home = (int) mix(keys[j]) & mask;
+            boolean movable = gap <= j ? (home <= gap || home > j) : (home <= gap && home > j);
+            if (movable) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                values[j] = 0;
+                gap = j;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int j = (int) mix(oldKeys[i]) & mask;
+                while (values[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    // Murmur3 finalizer: sequential IDs must not form long probe runs
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
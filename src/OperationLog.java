@@ -0,0 +1,330 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Append-only, segmented record log with group commit.
+// Appenders only enqueue; a single writer thread drains whatever has queued up, writes it
+// with one channel write and forces the file once per batch of fsyncBatchSize records or
+// every fsyncIntervalMillis, whichever comes first. Each record is framed as
+// [length][crc32][payload] so a torn tail after a crash is detected and ignored on replay.
+public class OperationLog implements Closeable {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_BATCH = 4096;
+    private static final int QUEUE_CAPACITY = 65536;
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    // Control markers travel through the queue so they are ordered with the records around them
+    private static final byte[] SYNC = new byte[0];
+    private static final byte[] ROTATE = new byte[0];
+    private static final byte[] CLOSE = new byte[0];
+
+    private final Path directory;
+    private final int fsyncBatchSize;
+    private final long fsyncIntervalNanos;
+    private final BlockingQueue<byte[]> queue;
+    private final ByteBuffer buffer;
+    private final CRC32 crc;
+    private final Thread writer;
+
+    private final Object appendLock = new Object();
+    private long enqueued; // guarded by appendLock
+
+    private final Object durableLock = new Object();
+    private long durable; // guarded by durableLock
+
+    private volatile long activeSegment;
+    private volatile IOException failure;
+    private volatile boolean closed; // set under appendLock
+    private FileChannel channel; // writer thread only
+
+    public OperationLog(Path directory, int fsyncBatchSize, long fsyncIntervalMillis) throws IOException {
+        if (fsyncBatchSize <= 0 || fsyncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("fsync batch size and interval must be positive");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.crc = new CRC32();
+
+        // Never append behind a possibly torn tail: every process writes into a fresh segment
+        List<Long> existing = listSegments(directory);
+        this.activeSegment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+        this.channel = openSegment(activeSegment);
+
+        this.writer = new Thread(this::runWriter, "operation-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Returns once the record is queued; use sync() to wait until it is on disk
+    public void append(byte[] record) {
+        enqueue(record);
+    }
+
+    // Blocks until everything appended before this call has been forced to disk
+    public void sync() {
+        awaitDurable(enqueue(SYNC));
+    }
+
+    // Switches to a new segment and returns its number; records appended afterwards land in it
+    public synchronized long rotate() {
+        awaitDurable(enqueue(ROTATE));
+        return activeSegment;
+    }
+
+    public long getActiveSegment() {
+        return activeSegment;
+    }
+
+    public void deleteSegmentsBefore(long segment) throws IOException {
+        for (long existing : listSegments(directory)) {
+            if (existing < segment) {
+                Files.deleteIfExists(segmentPath(directory, existing));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long ticket;
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            ticket = enqueue(CLOSE);
+        }
+        awaitDurable(ticket);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Replays every intact record of segments [fromSegment, upToSegment) in append order
+    public static long replay(Path directory, long fromSegment, long upToSegment, Consumer<byte[]> handler)
+            throws IOException {
+        long replayed = 0;
+        CRC32 crc = new CRC32();
+        for (long segment : listSegments(directory)) {
+            if (segment < fromSegment || segment >= upToSegment) {
+                continue;
+            }
+            try (InputStream file = Files.newInputStream(segmentPath(directory, segment));
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(file, BUFFER_SIZE))) {
+                while (true) {
+                    byte[] record;
+                    try {
+                        int length = in.readInt();
+                        int checksum = in.readInt();
+                        if (length < 0 || length > BUFFER_SIZE * 64) {
+                            break;
+                        }
+                        record = new byte[length];
+                        in.readFully(record);
+                        crc.reset();
+                        crc.update(record);
+                        if ((int) crc.getValue() != checksum) {
+                            break;
+                        }
+                    } catch (EOFException e) {
+                        break; // torn tail from a crash mid-write
+                    }
+                    handler.accept(record);
+                    replayed++;
+                }
+            }
+        }
+        return replayed;
+    }
+
+    // Nothing may follow CLOSE into the queue: the writer stops there, so a later record would
+    // be lost and a later sync would wait forever
+    private long enqueue(byte[] record) {
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("Operation log is closed");
+            }
+            checkFailure();
+            try {
+                while (!queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+                    checkFailure();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while appending to operation log", e);
+            }
+            closed = record == CLOSE;
+            return ++enqueued;
+        }
+    }
+
+    private void awaitDurable(long ticket) {
+        synchronized (durableLock) {
+            while (durable < ticket) {
+                checkFailure();
+                try {
+                    durableLock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for operation log", e);
+                }
+            }
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("Operation log writer failed", failure);
+        }
+    }
+
+    private void runWriter() {
+        List<byte[]> batch = new ArrayList<>(MAX_BATCH);
+        long processed = 0;
+        long unsynced = 0;
+        long lastSync = System.nanoTime();
+        try {
+            while (true) {
+                byte[] first = queue.poll(fsyncIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                }
+
+                boolean forceNow = false;
+                boolean stop = false;
+                for (byte[] record : batch) {
+                    processed++;
+                    if (record == SYNC) {
+                        forceNow = true;
+                    } else if (record == ROTATE) {
+                        flushBuffer();
+                        channel.force(false);
+                        channel.close();
+                        channel = openSegment(activeSegment + 1);
+                        activeSegment++;
+                        unsynced = 0;
+                        forceNow = true;
+                    } else if (record == CLOSE) {
+                        forceNow = true;
+                        stop = true;
+                    } else {
+                        writeRecord(record);
+                        unsynced++;
+                    }
+                }
+                batch.clear();
+                flushBuffer();
+
+                long now = System.nanoTime();
+                if (forceNow || unsynced >= fsyncBatchSize || (unsynced > 0 && now - lastSync >= fsyncIntervalNanos)) {
+                    if (unsynced > 0) {
+                        channel.force(false);
+                    }
+                    unsynced = 0;
+                    lastSync = now;
+                    markDurable(processed);
+                }
+                if (stop) {
+                    channel.close();
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            failure = new IOException("Operation log writer interrupted", e);
+        }
+        synchronized (durableLock) {
+            durableLock.notifyAll();
+        }
+    }
+
+    private void writeRecord(byte[] record) throws IOException {
+        crc.reset();
+        crc.update(record);
+        if (buffer.remaining() < record.length + 8) {
+            flushBuffer();
+        }
+        if (record.length + 8 > buffer.capacity()) {
+            ByteBuffer header = ByteBuffer.allocate(8).putInt(record.length).putInt((int) crc.getValue());
+            header.flip();
+            writeFully(header);
+            writeFully(ByteBuffer.wrap(record));
+            return;
+        }
+        buffer.putInt(record.length).putInt((int) crc.getValue()).put(record);
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private void markDurable(long processed) {
+        synchronized (durableLock) {
+            durable = processed;
+            durableLock.notifyAll();
+        }
+    }
+
+    private FileChannel openSegment(long segment) throws IOException {
+        return FileChannel.open(segmentPath(directory, segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // Not one of ours
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+}
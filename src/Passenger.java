@@ -1,7 +1,13 @@
-import java.util.UUID;
+import java.util.Locale;
 
 public class Passenger extends Person {
-    private final String passengerId;
+    private static final PassengerIdGenerator ID_GENERATOR = new PassengerIdGenerator();
+
+    private final long numericId;
+    private String passengerId; // rendered on first use for store views
+    // Registered passengers are views over a PassengerStore slot; standalone ones keep their own fields
+    private final PassengerStore store;
+    private final int slot;
     private double baggageWeight;
     private static final double MAX_BAGGAGE_WEIGHT = 20.0;
     private TicketClass ticketClass;
@@ -28,25 +34,124 @@ public class Passenger extends Person {
     }
 
     public Passenger(String name, int age, String address, double baggageWeight) {
+        this(null, name, age, address, baggageWeight);
+    }
+
+    // Used when restoring persisted passengers, which must keep their original IDs; the text is
+    // kept as issued apart from case, so legacy IDs with leading zeros still render unchanged
+    Passenger(String passengerId, String name, int age, String address, double baggageWeight) {
         super(name, age, address);
-        this.passengerId = generatePassengerId();
+        if (passengerId == null) {
+            this.numericId = ID_GENERATOR.next();
+        } else {
+            this.numericId = PassengerIdGenerator.parse(passengerId);
+            if (numericId < 0) {
+                throw new IllegalArgumentException("Invalid passenger ID: " + passengerId);
+            }
+            ID_GENERATOR.advancePast(numericId);
+        }
+        this.passengerId = passengerId != null
+                ? passengerId.toUpperCase(Locale.ROOT) : PassengerIdGenerator.format(numericId);
+        this.store = null;
+        this.slot = -1;
         setBaggageWeight(baggageWeight);
         this.ticketClass = TicketClass.ECONOMY; // Default to economy
     }
 
-    private String generatePassengerId() {
-        return "P" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    // A null passengerId is rendered from numericId on first use
+    Passenger(PassengerStore store, int slot, long numericId, String passengerId) {
+        super(null, 0, null);
+        this.numericId = numericId;
+        this.passengerId = passengerId;
+        this.store = store;
+        this.slot = slot;
+    }
+
+    // Detached copy of every field, read together; reports use it so a field-by-field read of a
+    // view cannot meet a removal halfway
+    Passenger(long numericId, String passengerId, String name, int age, String address, double baggageWeight,
+              TicketClass ticketClass) {
+        super(name, age, address);
+        this.numericId = numericId;
+        this.passengerId = passengerId;
+        this.store = null;
+        this.slot = -1;
+        this.baggageWeight = baggageWeight;
+        this.ticketClass = ticketClass;
     }
 
     public String getPassengerId() {
-        return passengerId;
+        String id = passengerId;
+        if (id == null) {
+            id = PassengerIdGenerator.format(numericId);
+            passengerId = id;
+        }
+        return id;
+    }
+
+    public long getNumericId() {
+        return numericId;
+    }
+
+    @Override
+    public String getName() {
+        return store != null ? store.getName(slot, numericId) : super.getName();
+    }
+
+    // Registered passengers are renamed through AirportManager.renamePassenger, which also
+    // updates the name index and the journal
+    @Override
+    public void setName(String name) {
+        if (store != null) {
+            store.setName(slot, numericId, name);
+        } else {
+            super.setName(name);
+        }
+    }
+
+    @Override
+    public int getAge() {
+        return store != null ? store.getAge(slot, numericId) : super.getAge();
+    }
+
+    @Override
+    public void setAge(int age) {
+        if (store != null) {
+            validateAge(age);
+            store.setAge(slot, numericId, age);
+        } else {
+            super.setAge(age);
+        }
+    }
+
+    @Override
+    public String getAddress() {
+        return store != null ? store.getAddress(slot, numericId) : super.getAddress();
+    }
+
+    @Override
+    public void setAddress(String address) {
+        if (store != null) {
+            store.setAddress(slot, numericId, address);
+        } else {
+            super.setAddress(address);
+        }
     }
 
     public double getBaggageWeight() {
-        return baggageWeight;
+        return store != null ? store.getBaggageWeight(slot, numericId) : baggageWeight;
     }
 
     public void setBaggageWeight(double baggageWeight) {
+        validateBaggageWeight(baggageWeight);
+        if (store != null) {
+            store.setBaggageWeight(slot, numericId, baggageWeight);
+        } else {
+            this.baggageWeight = baggageWeight;
+        }
+    }
+
+    public static void validateBaggageWeight(double baggageWeight) {
         if (baggageWeight < 0) {
             throw new IllegalArgumentException("Baggage weight cannot be negative");
         }
@@ -55,24 +160,67 @@ public class Passenger extends Person {
                     String.format("Baggage weight exceeds maximum allowed weight of %.1f kg", MAX_BAGGAGE_WEIGHT)
             );
         }
-        this.baggageWeight = baggageWeight;
     }
 
     public TicketClass getTicketClass() {
-        return ticketClass;
+        return store != null ? store.getTicketClass(slot, numericId) : ticketClass;
     }
 
     public void setTicketClass(TicketClass ticketClass) {
+        if (store != null) {
+            store.setTicketClass(slot, numericId, ticketClass);
+        } else {
+            this.ticketClass = ticketClass;
+        }
+    }
+
+    // Records the class of a new booking; false if the passenger was removed in the meantime
+    boolean trySetTicketClass(TicketClass ticketClass) {
+        if (store != null) {
+            return store.trySetTicketClass(slot, numericId, ticketClass);
+        }
         this.ticketClass = ticketClass;
+        return true;
+    }
+
+    // The passenger's current fields, or null if a view's passenger has since been removed
+    Passenger snapshot() {
+        return store != null ? store.copy(slot, numericId) : this;
+    }
+
+    // Store slot of a registered passenger's view, -1 for a standalone passenger
+    int getSlot() {
+        return slot;
+    }
+
+    // Detached passengers count as registered; a view stops being registered when its passenger is removed
+    boolean isRegistered() {
+        return store == null || store.isRegistered(slot, numericId);
     }
 
     public boolean hasExcessBaggage() {
-        return baggageWeight > MAX_BAGGAGE_WEIGHT;
+        return getBaggageWeight() > MAX_BAGGAGE_WEIGHT;
+    }
+
+    // Views are created per lookup, so identity is the passenger ID rather than the object
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Passenger && ((Passenger) o).numericId == numericId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(numericId);
     }
 
     @Override
     public String toString() {
+        Passenger copy = snapshot();
+        if (copy == null) {
+            return "Passenger [ID: " + getPassengerId() + ", removed]";
+        }
         return String.format("Passenger [ID: %s, Name: %s, Age: %d, Baggage: %.1f kg, Class: %s]",
-                passengerId, getName(), getAge(), baggageWeight, ticketClass.getName());
+                copy.getPassengerId(), copy.getName(), copy.getAge(), copy.getBaggageWeight(),
+                copy.getTicketClass().getName());
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+// Monotonic 64-bit passenger IDs: milliseconds since 2024-01-01 in the high bits and a
+// 20-bit sequence in the low bits, rendered as "P" followed by upper-case hex.
+// IDs never repeat within a process, and restored IDs push the generator past themselves,
+// so a restart cannot hand out an ID that is already in use.
+public class PassengerIdGenerator {
+    private static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    private static final int SEQUENCE_BITS = 20;
+
+    private final AtomicLong last;
+
+    public PassengerIdGenerator() {
+        this.last = new AtomicLong();
+    }
+
+    public long next() {
+        long candidate = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long previous = last.get();
+            long id = Math.max(candidate, previous + 1);
+            if (last.compareAndSet(previous, id)) {
+                return id;
+            }
+        }
+    }
+
+    public void advancePast(long id) {
+        last.accumulateAndGet(id, Math::max);
+    }
+
+    public static String format(long id) {
+        return "P" + Long.toHexString(id).toUpperCase();
+    }
+
+    // Returns -1 for anything that is not "P" followed by hex digits; valid IDs are never negative
+    public static long parse(String passengerId) {
+        if (passengerId == null || passengerId.length() < 2 || passengerId.length() > 17
+                || Character.toUpperCase(passengerId.charAt(0)) != 'P') {
+            return -1;
+        }
+        long id = 0;
+        for (int i = 1; i < passengerId.length(); i++) {
+            int digit = Character.digit(passengerId.charAt(i), 16);
+            if (digit < 0 || id > (Long.MAX_VALUE >>> 4)) {
+                return -1;
+            }
+            id = (id << 4) | digit;
+        }
+        return id;
+    }
+}
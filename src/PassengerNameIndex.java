@@ -0,0 +1,198 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+// Trigram index over passenger names for case-insensitive "contains" searches.
+// A query is answered from the smallest posting list among its trigrams, so only real
+// candidates are checked instead of the whole registry.
+//
+// Postings are primitive arrays of PassengerStore slots and the index keeps no copy of any
+// name: every candidate is re-checked against the name in the store, so a posting is only a
+// hint. Removing or renaming a passenger therefore leaves its old postings in place and just
+// counts them as stale; once stale postings outnumber live ones the index is rebuilt from the
+// store. A slot can appear in a list more than once, so candidates are de-duplicated.
+public class PassengerNameIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int MIN_REBUILD_POSTINGS = 4096;
+
+    private final PassengerStore store;
+    private final StampedLock lock = new StampedLock();
+
+    // All guarded by lock
+    private LongIntMap listsByGram = new LongIntMap();
+    private int[][] lists = new int[64][];
+    private int[] listSizes = new int[64];
+    private int listCount;
+    private int[] gramsBySlot = new int[1024]; // 1 + postings of the slot's current name, 0 if not indexed
+    private int indexed;
+    private long livePostings;
+    private long stalePostings;
+
+    public PassengerNameIndex(PassengerStore store) {
+        this.store = store;
+    }
+
+    // Indexes a registered passenger under its current name; calling it again after a rename
+    // re-indexes the passenger
+    public void add(int slot, String name) {
+        long stamp = lock.writeLock();
+        try {
+            index(slot, name);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Called once the passenger has left the store
+    public void remove(int slot) {
+        long stamp = lock.writeLock();
+        try {
+            if (slot >= gramsBySlot.length || gramsBySlot[slot] == 0) {
+                return;
+            }
+            retire(slot);
+            indexed--;
+            if (stalePostings > livePostings && stalePostings > MIN_REBUILD_POSTINGS) {
+                rebuild();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public List<Passenger> search(String query) {
+        String needle = lowerCase(query == null ? "" : query);
+
+        // Shorter queries match most of the registry anyway, so a scan is as good as an index
+        if (needle.length() < GRAM_LENGTH) {
+            return store.viewsMatching(name -> containsLowerCase(name, needle));
+        }
+
+        int[] candidates;
+        long stamp = lock.readLock();
+        try {
+            int smallest = -1;
+            for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+                int list = listsByGram.get(gram(needle, i));
+                if (list == LongIntMap.MISSING) {
+                    return new ArrayList<>();
+                }
+                if (smallest < 0 || listSizes[list] < listSizes[smallest]) {
+                    smallest = list;
+                }
+            }
+            candidates = Arrays.copyOf(lists[smallest], listSizes[smallest]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        Arrays.sort(candidates);
+        List<Passenger> result = new ArrayList<>();
+        for (int i = 0; i < candidates.length; i++) {
+            if (i > 0 && candidates[i] == candidates[i - 1]) {
+                continue;
+            }
+            // A passenger removed or renamed since the lookup simply drops out of the result
+            Passenger passenger = store.viewIfMatching(candidates[i], name -> containsLowerCase(name, needle));
+            if (passenger != null) {
+                result.add(passenger);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return indexed;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Caller holds the write lock
+    private void index(int slot, String name) {
+        if (slot >= gramsBySlot.length) {
+            gramsBySlot = Arrays.copyOf(gramsBySlot, Math.max(gramsBySlot.length * 2, slot + 1));
+        }
+        if (gramsBySlot[slot] > 0) {
+            retire(slot);
+        } else {
+            indexed++;
+        }
+        String lower = lowerCase(name == null ? "" : name);
+        int grams = Math.max(0, lower.length() - GRAM_LENGTH + 1);
+        for (int i = 0; i < grams; i++) {
+            append(gram(lower, i), slot);
+        }
+        gramsBySlot[slot] = grams + 1;
+        livePostings += grams;
+    }
+
+    // Caller holds the write lock; the slot's postings stay in their lists until the next rebuild
+    private void retire(int slot) {
+        int grams = gramsBySlot[slot] - 1;
+        stalePostings += grams;
+        livePostings -= grams;
+        gramsBySlot[slot] = 0;
+    }
+
+    private void append(long gram, int slot) {
+        int list = listsByGram.putIfAbsent(gram, listCount);
+        if (list == LongIntMap.MISSING) {
+            list = listCount++;
+            if (list == lists.length) {
+                lists = Arrays.copyOf(lists, list * 2);
+                listSizes = Arrays.copyOf(listSizes, list * 2);
+            }
+            lists[list] = new int[4];
+        }
+        int size = listSizes[list];
+        if (size == lists[list].length) {
+            lists[list] = Arrays.copyOf(lists[list], size * 2);
+        }
+        lists[list][size] = slot;
+        listSizes[list] = size + 1;
+    }
+
+    // Caller holds the write lock; reads every current name from the store
+    private void rebuild() {
+        listsByGram = new LongIntMap();
+        lists = new int[64][];
+        listSizes = new int[64];
+        listCount = 0;
+        Arrays.fill(gramsBySlot, 0);
+        indexed = 0;
+        livePostings = 0;
+        stalePostings = 0;
+        store.forEachName((name, slot) -> index(slot, name));
+    }
+
+    // Packs three UTF-16 chars into one key so no substring is allocated per gram
+    private static long gram(String s, int start) {
+        return ((long) s.charAt(start) << 32) | ((long) s.charAt(start + 1) << 16) | s.charAt(start + 2);
+    }
+
+    // Char by char, so index keys, queries and candidate checks all fold case the same way
+    private static String lowerCase(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static boolean containsLowerCase(String name, String needle) {
+        for (int start = 0; start + needle.length() <= name.length(); start++) {
+            int i = 0;
+            while (i < needle.length() && Character.toLowerCase(name.charAt(start + i)) == needle.charAt(i)) {
+                i++;
+            }
+            if (i == needle.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
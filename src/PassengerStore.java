@@ -0,0 +1,485 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+
+// Struct-of-arrays passenger registry. Each passenger is a slot across primitive columns;
+// names and addresses live in a shared string pool, and an open-addressing index maps the
+// numeric ID to its slot. The numeric ID is the passenger's identity; an ID restored in a form
+// other than PassengerIdGenerator.format (a legacy ID with leading zeros) keeps its original
+// text on the side, so it renders exactly as it was issued. Passenger objects handed out are short-lived views over a slot,
+// so a registered passenger costs a few dozen bytes of columns instead of an object graph.
+//
+// An add can be split into reserve() and publish(): the reservation claims the ID so no other
+// add can take it, but the passenger is invisible to find(), views() and scans until published.
+//
+// Adding, removing and interning strings take the write lock. Single-column reads are
+// optimistic, and in-place primitive updates only need the read lock because they never
+// move the arrays; a concurrent resize takes the write lock and waits them out.
+public class PassengerStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long FREE = -1; // PassengerIdGenerator never yields a negative ID
+    private static final long PENDING = -2;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongIntMap slotsById = new LongIntMap();
+    private final StringPool strings = new StringPool();
+    // Original text of IDs that format() would render differently; usually empty
+    private final Map<Long, String> irregularIds = new HashMap<>();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private double[] baggageWeights = new double[INITIAL_CAPACITY];
+    private byte[] ticketClasses = new byte[INITIAL_CAPACITY];
+    private int[] nameRefs = new int[INITIAL_CAPACITY];
+    private int[] addressRefs = new int[INITIAL_CAPACITY];
+
+    private int highWater;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int pendingCount;
+
+    // Returns a view of the new passenger, or null if the ID is already registered
+    public Passenger add(long id, String passengerId, String name, int age, String address, double baggageWeight,
+                         Passenger.TicketClass ticketClass) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = claim(id, passengerId, name, age, address, baggageWeight, ticketClass);
+            if (slot < 0) {
+                return null;
+            }
+            ids[slot] = id;
+            return new Passenger(this, slot, id, passengerId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Claims the ID without making the passenger visible; returns the reserved slot, or -1 if the
+    // ID is already registered or reserved. Must be followed by publish() or discard().
+    public int reserve(long id, String passengerId, String name, int age, String address, double baggageWeight,
+                       Passenger.TicketClass ticketClass) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = claim(id, passengerId, name, age, address, baggageWeight, ticketClass);
+            if (slot >= 0) {
+                ids[slot] = PENDING;
+                pendingCount++;
+            }
+            return slot;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public Passenger publish(int slot, long id) {
+        long stamp = lock.writeLock();
+        try {
+            checkReserved(slot, id);
+            ids[slot] = id;
+            pendingCount--;
+            return new Passenger(this, slot, id, irregularId(id));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void discard(int slot, long id) {
+        long stamp = lock.writeLock();
+        try {
+            checkReserved(slot, id);
+            pendingCount--;
+            slotsById.remove(id);
+            release(slot, id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public Passenger find(long id) {
+        long stamp = lock.readLock();
+        try {
+            int slot = slotsById.get(id);
+            return slot != LongIntMap.MISSING && ids[slot] == id
+                    ? new Passenger(this, slot, id, irregularId(id)) : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotsById.get(id);
+            if (slot == LongIntMap.MISSING || ids[slot] != id) {
+                return false;
+            }
+            slotsById.remove(id);
+            release(slot, id);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return slotsById.size() - pendingCount;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public List<Passenger> views() {
+        long stamp = lock.readLock();
+        try {
+            List<Passenger> views = new ArrayList<>(slotsById.size() - pendingCount);
+            for (int slot = 0; slot < highWater; slot++) {
+                if (ids[slot] >= 0) {
+                    views.add(new Passenger(this, slot, ids[slot], irregularId(ids[slot])));
+                }
+            }
+            return views;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Views of every passenger whose name passes the test, which runs under the read lock
+    public List<Passenger> viewsMatching(Predicate<String> nameTest) {
+        long stamp = lock.readLock();
+        try {
+            List<Passenger> views = new ArrayList<>();
+            for (int slot = 0; slot < highWater; slot++) {
+                if (ids[slot] >= 0 && nameTest.test(strings.get(nameRefs[slot]))) {
+                    views.add(new Passenger(this, slot, ids[slot], irregularId(ids[slot])));
+                }
+            }
+            return views;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // View of whoever holds the slot now, if anyone does and their name passes the test
+    public Passenger viewIfMatching(int slot, Predicate<String> nameTest) {
+        long stamp = lock.readLock();
+        try {
+            if (slot >= highWater || ids[slot] < 0 || !nameTest.test(strings.get(nameRefs[slot]))) {
+                return null;
+            }
+            return new Passenger(this, slot, ids[slot], irregularId(ids[slot]));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void forEachName(ObjIntConsumer<String> action) {
+        long stamp = lock.readLock();
+        try {
+            for (int slot = 0; slot < highWater; slot++) {
+                if (ids[slot] >= 0) {
+                    action.accept(strings.get(nameRefs[slot]), slot);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Aggregate scans walk the primitive columns directly, without touching any objects
+    public double getAverageAge() {
+        long stamp = lock.readLock();
+        try {
+            long total = 0;
+            int count = 0;
+            for (int slot = 0; slot < highWater; slot++) {
+                if (ids[slot] >= 0) {
+                    total += ages[slot];
+                    count++;
+                }
+            }
+            return count > 0 ? (double) total / count : 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public double getTotalBaggageWeight() {
+        long stamp = lock.readLock();
+        try {
+            double total = 0;
+            for (int slot = 0; slot < highWater; slot++) {
+                if (ids[slot] >= 0) {
+                    total += baggageWeights[slot];
+                }
+            }
+            return total;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int countByTicketClass(Passenger.TicketClass ticketClass) {
+        byte wanted = (byte) ticketClass.ordinal();
+        long stamp = lock.readLock();
+        try {
+            int count = 0;
+            for (int slot = 0; slot < highWater; slot++) {
+                if (ids[slot] >= 0 && ticketClasses[slot] == wanted) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Every column of the slot under one read lock, or null once the passenger has been removed
+    Passenger copy(int slot, long id) {
+        long stamp = lock.readLock();
+        try {
+            if (ids[slot] != id) {
+                return null;
+            }
+            return new Passenger(id, irregularId(id), strings.get(nameRefs[slot]), ages[slot],
+                    strings.get(addressRefs[slot]), baggageWeights[slot],
+                    Passenger.TicketClass.values()[ticketClasses[slot]]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Column accessors for Passenger views; a view outliving its passenger fails loudly
+    // instead of reading whoever reused the slot
+    String getName(int slot, long id) {
+        long stamp = lock.readLock();
+        try {
+            checkSlot(slot, id);
+            return strings.get(nameRefs[slot]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    String getAddress(int slot, long id) {
+        long stamp = lock.readLock();
+        try {
+            checkSlot(slot, id);
+            return strings.get(addressRefs[slot]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    int getAge(int slot, long id) {
+        long stamp = lock.tryOptimisticRead();
+        long[] idColumn = ids;
+        int[] ageColumn = ages;
+        long storedId = idColumn[slot];
+        int age = ageColumn[slot];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                storedId = ids[slot];
+                age = ages[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        checkId(storedId, id);
+        return age;
+    }
+
+    double getBaggageWeight(int slot, long id) {
+        long stamp = lock.tryOptimisticRead();
+        long[] idColumn = ids;
+        double[] baggageColumn = baggageWeights;
+        long storedId = idColumn[slot];
+        double baggageWeight = baggageColumn[slot];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                storedId = ids[slot];
+                baggageWeight = baggageWeights[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        checkId(storedId, id);
+        return baggageWeight;
+    }
+
+    Passenger.TicketClass getTicketClass(int slot, long id) {
+        long stamp = lock.tryOptimisticRead();
+        long[] idColumn = ids;
+        byte[] classColumn = ticketClasses;
+        long storedId = idColumn[slot];
+        byte ticketClass = classColumn[slot];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                storedId = ids[slot];
+                ticketClass = ticketClasses[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        checkId(storedId, id);
+        return Passenger.TicketClass.values()[ticketClass];
+    }
+
+    void setName(int slot, long id, String name) {
+        long stamp = lock.writeLock();
+        try {
+            checkSlot(slot, id);
+            nameRefs[slot] = strings.intern(name);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void setAddress(int slot, long id, String address) {
+        long stamp = lock.writeLock();
+        try {
+            checkSlot(slot, id);
+            addressRefs[slot] = strings.intern(address);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void setAge(int slot, long id, int age) {
+        long stamp = lock.readLock();
+        try {
+            checkSlot(slot, id);
+            ages[slot] = age;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void setBaggageWeight(int slot, long id, double baggageWeight) {
+        long stamp = lock.readLock();
+        try {
+            checkSlot(slot, id);
+            baggageWeights[slot] = baggageWeight;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void setTicketClass(int slot, long id, Passenger.TicketClass ticketClass) {
+        long stamp = lock.readLock();
+        try {
+            checkSlot(slot, id);
+            ticketClasses[slot] = (byte) ticketClass.ordinal();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Like setTicketClass, but returns false instead of failing once the passenger has been removed
+    boolean trySetTicketClass(int slot, long id, Passenger.TicketClass ticketClass) {
+        long stamp = lock.readLock();
+        try {
+            if (ids[slot] != id) {
+                return false;
+            }
+            ticketClasses[slot] = (byte) ticketClass.ordinal();
+            return true;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // False once the passenger behind a view has been removed
+    boolean isRegistered(int slot, long id) {
+        long stamp = lock.tryOptimisticRead();
+        long[] idColumn = ids;
+        long storedId = idColumn[slot];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                storedId = ids[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return storedId == id;
+    }
+
+    // Must hold the write lock; fills a free slot and maps the ID to it, or returns -1 if the ID is taken
+    private int claim(long id, String passengerId, String name, int age, String address, double baggageWeight,
+                      Passenger.TicketClass ticketClass) {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : highWater;
+        if (slotsById.putIfAbsent(id, slot) != LongIntMap.MISSING) {
+            if (slot != highWater) {
+                freeCount++;
+            }
+            return -1;
+        }
+        if (slot == highWater) {
+            ensureCapacity(++highWater);
+        }
+        ages[slot] = age;
+        baggageWeights[slot] = baggageWeight;
+        ticketClasses[slot] = (byte) ticketClass.ordinal();
+        nameRefs[slot] = strings.intern(name);
+        addressRefs[slot] = strings.intern(address);
+        if (!passengerId.equals(PassengerIdGenerator.format(id))) {
+            irregularIds.put(id, passengerId);
+        }
+        return slot;
+    }
+
+    // Must hold the write lock; the ID is already unmapped
+    private void release(int slot, long id) {
+        ids[slot] = FREE;
+        irregularIds.remove(id);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void checkReserved(int slot, long id) {
+        if (ids[slot] != PENDING || slotsById.get(id) != slot) {
+            throw new IllegalStateException("No pending reservation for " + PassengerIdGenerator.format(id));
+        }
+    }
+
+    // Must hold a lock; null means the ID renders in the standard form
+    private String irregularId(long id) {
+        return irregularIds.isEmpty() ? null : irregularIds.get(id);
+    }
+
+    private void checkSlot(int slot, long id) {
+        checkId(ids[slot], id);
+    }
+
+    private static void checkId(long storedId, long id) {
+        if (storedId != id) {
+            throw new IllegalStateException("Passenger " + PassengerIdGenerator.format(id) + " is no longer registered");
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) {
+            return;
+        }
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        baggageWeights = Arrays.copyOf(baggageWeights, capacity);
+        ticketClasses = Arrays.copyOf(ticketClasses, capacity);
+        nameRefs = Arrays.copyOf(nameRefs, capacity);
+        addressRefs = Arrays.copyOf(addressRefs, capacity);
+    }
+}
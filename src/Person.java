@@ -23,9 +23,12 @@ public class Person {
     }
 
     public void setAge(int age) {
-        if (age > 0) {
-            this.age = age;
-        } else {
+        validateAge(age);
+        this.age = age;
+    }
+
+    public static void validateAge(int age) {
+        if (age <= 0) {
             throw new IllegalArgumentException("Age must be positive");
         }
     }
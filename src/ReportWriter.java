@@ -0,0 +1,563 @@
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+// Streams manifests, flight lists and statistics to a buffered writer as plain text, CSV
+// or JSON. Each line is built in one reused StringBuilder with direct appends instead of
+// String.format, and a manifest's bookings are bucketed by cabin class in a single pass
+// over the flight, so exporting many flights allocates little beyond the text itself.
+// Not thread-safe; callers own the writer and must flush() when done.
+public class ReportWriter implements Flushable {
+    public enum Format {
+        TEXT, CSV, JSON
+    }
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String RULE = "=".repeat(60);
+    private static final String THIN_RULE = "-".repeat(60);
+    private static final Passenger.TicketClass[] CLASSES = Passenger.TicketClass.values();
+
+    private final Writer out;
+    private final Format format;
+    private final StringBuilder line = new StringBuilder(256);
+    private final Bucket[] buckets = new Bucket[CLASSES.length];
+
+    public ReportWriter(Writer out, Format format) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, 1 << 16);
+        this.format = format;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    public ReportWriter(OutputStream out, Format format) {
+        this(new OutputStreamWriter(out, StandardCharsets.UTF_8), format);
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public void writeManifest(Flight flight) throws IOException {
+        switch (format) {
+            case TEXT -> textManifest(flight);
+            case CSV -> {
+                csvManifestHeader();
+                csvManifestRows(flight);
+            }
+            case JSON -> {
+                jsonManifest(flight);
+                emit();
+            }
+        }
+    }
+
+    public void writeManifests(Collection<Flight> flights) throws IOException {
+        switch (format) {
+            case TEXT -> {
+                for (Flight flight : flights) {
+                    textManifest(flight);
+                    emit();
+                }
+            }
+            case CSV -> {
+                csvManifestHeader();
+                for (Flight flight : flights) {
+                    csvManifestRows(flight);
+                }
+            }
+            case JSON -> {
+                line.append('[');
+                Iterator<Flight> it = flights.iterator();
+                while (it.hasNext()) {
+                    jsonManifest(it.next());
+                    if (it.hasNext()) {
+                        line.append(',');
+                    }
+                    emit();
+                }
+                line.append(']');
+                emit();
+            }
+        }
+    }
+
+    public void writeFlights(Collection<Flight> flights) throws IOException {
+        switch (format) {
+            case TEXT -> {
+                if (flights.isEmpty()) {
+                    line.append("No flights scheduled.");
+                    emit();
+                    return;
+                }
+                line.append('\n').append(RULE).append("\nALL SCHEDULED FLIGHTS\n").append(RULE);
+                emit();
+                for (Flight flight : flights) {
+                    textFlightInfo(flight);
+                    line.append("\nPassengers: ").append(flight.getTotalPassengers()).append('\n').append(THIN_RULE);
+                    emit();
+                }
+            }
+            case CSV -> {
+                line.append("flight_code,origin,destination,status,departure,arrival,economy_available,"
+                        + "economy_total,business_available,business_total,passengers,occupancy_percent");
+                emit();
+                for (Flight flight : flights) {
+                    csv(flight.getFlightCode()).append(',');
+                    csv(flight.getOrigin()).append(',');
+                    csv(flight.getDestination()).append(',');
+                    csv(flight.getStatus().getDisplayName()).append(',');
+                    time(flight.getDepartureTime()).append(',');
+                    time(flight.getArrivalTime()).append(',');
+                    line.append(flight.getAvailableEconomySeats()).append(',').append(flight.getTotalEconomySeats())
+                            .append(',').append(flight.getAvailableBusinessSeats()).append(',')
+                            .append(flight.getTotalBusinessSeats()).append(',').append(flight.getTotalPassengers())
+                            .append(',');
+                    tenths(flight.getOccupancyRate());
+                    emit();
+                }
+            }
+            case JSON -> {
+                line.append('[');
+                Iterator<Flight> it = flights.iterator();
+                while (it.hasNext()) {
+                    jsonFlight(it.next());
+                    line.append('}');
+                    if (it.hasNext()) {
+                        line.append(',');
+                    }
+                    emit();
+                }
+                line.append(']');
+                emit();
+            }
+        }
+    }
+
+    // Passengers removed while the report is written are left out
+    public void writePassengers(Collection<Passenger> passengers) throws IOException {
+        switch (format) {
+            case TEXT -> {
+                for (Passenger view : passengers) {
+                    Passenger passenger = view.snapshot();
+                    if (passenger == null) {
+                        continue;
+                    }
+                    textPassenger(passenger);
+                    emit();
+                }
+            }
+            case CSV -> {
+                line.append("passenger_id,name,age,address,baggage_weight,ticket_class");
+                emit();
+                for (Passenger view : passengers) {
+                    Passenger passenger = view.snapshot();
+                    if (passenger == null) {
+                        continue;
+                    }
+                    line.append(passenger.getPassengerId()).append(',');
+                    csv(passenger.getName()).append(',').append(passenger.getAge()).append(',');
+                    csv(passenger.getAddress()).append(',');
+                    tenths(passenger.getBaggageWeight()).append(',').append(passenger.getTicketClass().getName());
+                    emit();
+                }
+            }
+            case JSON -> {
+                line.append('[');
+                boolean first = true;
+                for (Passenger view : passengers) {
+                    Passenger passenger = view.snapshot();
+                    if (passenger == null) {
+                        continue;
+                    }
+                    line.append(first ? "{\"passengerId\":" : ",{\"passengerId\":");
+                    first = false;
+                    json(passenger.getPassengerId()).append(",\"name\":");
+                    json(passenger.getName()).append(",\"age\":").append(passenger.getAge())
+                            .append(",\"address\":");
+                    json(passenger.getAddress()).append(",\"baggageWeight\":");
+                    tenths(passenger.getBaggageWeight()).append(",\"ticketClass\":");
+                    json(passenger.getTicketClass().getName()).append('}');
+                    if (line.length() > 8192) {
+                        emit();
+                    }
+                }
+                line.append(']');
+                emit();
+            }
+        }
+    }
+
+    public void writeStatistics(AirportManager manager) throws IOException {
+        AirportStatistics statistics = manager.getStatistics();
+        int passengers = manager.getPassengerCount();
+        long flights = statistics.getFlightCount();
+        switch (format) {
+            case TEXT -> {
+                line.append('\n').append(RULE).append("\nAIRPORT STATISTICS\n").append(RULE)
+                        .append("\nTotal Registered Passengers: ").append(passengers);
+                if (passengers > 0) {
+                    line.append("\nAverage Passenger Age: ");
+                    tenths(manager.getAveragePassengerAge());
+                    line.append("\nTotal Checked Baggage: ");
+                    tenths(manager.getTotalBaggageWeight()).append(" kg");
+                }
+                line.append("\nTotal Scheduled Flights: ").append(flights);
+                if (flights > 0) {
+                    line.append("\nTotal Seats: ").append(statistics.getTotalSeats())
+                            .append("\nTotal Passengers Boarded: ").append(statistics.getTotalBoardedPassengers());
+                    for (Passenger.TicketClass ticketClass : CLASSES) {
+                        line.append("\n  ").append(ticketClass.getName()).append(": ")
+                                .append(statistics.getBoardedPassengers(ticketClass));
+                    }
+                    line.append("\nAverage Flight Occupancy: ");
+                    tenths(statistics.getAverageOccupancy()).append('%');
+                    line.append("\nFlights by Status:");
+                    for (Flight.FlightStatus status : Flight.FlightStatus.values()) {
+                        long count = statistics.getFlightCount(status);
+                        if (count > 0) {
+                            line.append("\n  ").append(status.getDisplayName()).append(": ").append(count);
+                        }
+                    }
+                }
+                line.append('\n').append(RULE);
+                emit();
+            }
+            case CSV -> {
+                line.append("metric,value");
+                emit();
+                metric("registered_passengers").append(passengers);
+                emit();
+                if (passengers > 0) {
+                    metric("average_passenger_age");
+                    tenths(manager.getAveragePassengerAge());
+                    emit();
+                    metric("total_baggage_kg");
+                    tenths(manager.getTotalBaggageWeight());
+                    emit();
+                }
+                metric("flights").append(flights);
+                emit();
+                metric("total_seats").append(statistics.getTotalSeats());
+                emit();
+                metric("boarded_passengers").append(statistics.getTotalBoardedPassengers());
+                emit();
+                for (Passenger.TicketClass ticketClass : CLASSES) {
+                    metric("boarded_" + ticketClass.name().toLowerCase()).append(statistics.getBoardedPassengers(ticketClass));
+                    emit();
+                }
+                metric("average_occupancy_percent");
+                tenths(statistics.getAverageOccupancy());
+                emit();
+                for (Flight.FlightStatus status : Flight.FlightStatus.values()) {
+                    metric("flights_" + status.name().toLowerCase()).append(statistics.getFlightCount(status));
+                    emit();
+                }
+            }
+            case JSON -> {
+                line.append("{\"registeredPassengers\":").append(passengers);
+                if (passengers > 0) {
+                    line.append(",\"averagePassengerAge\":");
+                    tenths(manager.getAveragePassengerAge());
+                    line.append(",\"totalBaggageKg\":");
+                    tenths(manager.getTotalBaggageWeight());
+                }
+                line.append(",\"flights\":").append(flights)
+                        .append(",\"totalSeats\":").append(statistics.getTotalSeats())
+                        .append(",\"boardedPassengers\":{");
+                for (int i = 0; i < CLASSES.length; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    json(CLASSES[i].getName()).append(':').append(statistics.getBoardedPassengers(CLASSES[i]));
+                }
+                line.append("},\"averageOccupancyPercent\":");
+                tenths(statistics.getAverageOccupancy());
+                line.append(",\"flightsByStatus\":{");
+                Flight.FlightStatus[] statuses = Flight.FlightStatus.values();
+                for (int i = 0; i < statuses.length; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    json(statuses[i].getDisplayName()).append(':').append(statistics.getFlightCount(statuses[i]));
+                }
+                line.append("}}");
+                emit();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    // One pass over the bookings, copying each passenger's fields so a removal racing the report
+    // drops the row instead of failing it; bucket contents are dropped again once written
+    private void partition(Flight flight) {
+        flight.forEachBooking((passenger, ticketClass, seat) -> {
+            Passenger copy = passenger.snapshot();
+            if (copy != null) {
+                buckets[ticketClass.ordinal()].add(copy, seat);
+            }
+        });
+    }
+
+    private void clearBuckets() {
+        for (Bucket bucket : buckets) {
+            bucket.clear();
+        }
+    }
+
+    private void textManifest(Flight flight) throws IOException {
+        line.append('\n').append(RULE).append("\nFLIGHT MANIFEST\n").append(RULE).append('\n');
+        textFlightInfo(flight);
+        line.append('\n').append(THIN_RULE);
+        emit();
+
+        partition(flight);
+        try {
+            if (isEmpty()) {
+                line.append("No passengers boarded yet.");
+                emit();
+            } else {
+                line.append("PASSENGER LIST:");
+                emit();
+                // Premium cabins first
+                for (int c = CLASSES.length - 1; c >= 0; c--) {
+                    Bucket bucket = buckets[c];
+                    if (bucket.size == 0) {
+                        continue;
+                    }
+                    line.append('\n').append(CLASSES[c].getName()).append(" Class:");
+                    emit();
+                    for (int i = 0; i < bucket.size; i++) {
+                        line.append("  • ");
+                        seat(flight, bucket.seats[i]).append(' ');
+                        textPassenger(bucket.passengers[i]);
+                        emit();
+                    }
+                }
+            }
+        } finally {
+            clearBuckets();
+        }
+        line.append(RULE);
+        emit();
+    }
+
+    private void textFlightInfo(Flight flight) {
+        line.append("Flight ").append(flight.getFlightCode()).append(": ").append(flight.getOrigin())
+                .append(" → ").append(flight.getDestination())
+                .append("\nStatus: ").append(flight.getStatus().getDisplayName())
+                .append("\nDeparture: ");
+        time(flight.getDepartureTime()).append(" | Arrival: ");
+        time(flight.getArrivalTime())
+                .append("\nEconomy: ").append(flight.getAvailableEconomySeats()).append('/')
+                .append(flight.getTotalEconomySeats()).append(" available | Business: ")
+                .append(flight.getAvailableBusinessSeats()).append('/').append(flight.getTotalBusinessSeats())
+                .append(" available\nTotal Passengers: ").append(flight.getTotalPassengers()).append(" (");
+        tenths(flight.getOccupancyRate()).append("% occupancy)");
+    }
+
+    private void textPassenger(Passenger passenger) {
+        line.append("Passenger [ID: ").append(passenger.getPassengerId())
+                .append(", Name: ").append(passenger.getName())
+                .append(", Age: ").append(passenger.getAge())
+                .append(", Baggage: ");
+        tenths(passenger.getBaggageWeight()).append(" kg, Class: ").append(passenger.getTicketClass().getName())
+                .append(']');
+    }
+
+    private void csvManifestHeader() throws IOException {
+        line.append("flight_code,seat,class,passenger_id,name,age,baggage_weight");
+        emit();
+    }
+
+    private void csvManifestRows(Flight flight) throws IOException {
+        partition(flight);
+        try {
+            for (int c = CLASSES.length - 1; c >= 0; c--) {
+                Bucket bucket = buckets[c];
+                for (int i = 0; i < bucket.size; i++) {
+                    Passenger passenger = bucket.passengers[i];
+                    csv(flight.getFlightCode()).append(',');
+                    seat(flight, bucket.seats[i]).append(',').append(CLASSES[c].getName()).append(',')
+                            .append(passenger.getPassengerId()).append(',');
+                    csv(passenger.getName()).append(',').append(passenger.getAge()).append(',');
+                    tenths(passenger.getBaggageWeight());
+                    emit();
+                }
+            }
+        } finally {
+            clearBuckets();
+        }
+    }
+
+    // Leaves the object open in the line buffer for the caller to close
+    private void jsonFlight(Flight flight) {
+        line.append("{\"flightCode\":");
+        json(flight.getFlightCode()).append(",\"origin\":");
+        json(flight.getOrigin()).append(",\"destination\":");
+        json(flight.getDestination()).append(",\"status\":");
+        json(flight.getStatus().getDisplayName()).append(",\"departure\":\"");
+        time(flight.getDepartureTime()).append("\",\"arrival\":\"");
+        time(flight.getArrivalTime()).append("\",\"economy\":{\"available\":")
+                .append(flight.getAvailableEconomySeats()).append(",\"total\":").append(flight.getTotalEconomySeats())
+                .append("},\"business\":{\"available\":").append(flight.getAvailableBusinessSeats())
+                .append(",\"total\":").append(flight.getTotalBusinessSeats())
+                .append("},\"totalPassengers\":").append(flight.getTotalPassengers())
+                .append(",\"occupancyPercent\":");
+        tenths(flight.getOccupancyRate());
+    }
+
+    private void jsonManifest(Flight flight) throws IOException {
+        jsonFlight(flight);
+        line.append(",\"passengers\":[");
+        partition(flight);
+        try {
+            boolean first = true;
+            for (int c = CLASSES.length - 1; c >= 0; c--) {
+                Bucket bucket = buckets[c];
+                for (int i = 0; i < bucket.size; i++) {
+                    Passenger passenger = bucket.passengers[i];
+                    line.append(first ? "" : ",").append("{\"seat\":\"");
+                    first = false;
+                    seat(flight, bucket.seats[i]).append("\",\"class\":");
+                    json(CLASSES[c].getName()).append(",\"passengerId\":");
+                    json(passenger.getPassengerId()).append(",\"name\":");
+                    json(passenger.getName()).append(",\"age\":").append(passenger.getAge())
+                            .append(",\"baggageWeight\":");
+                    tenths(passenger.getBaggageWeight()).append('}');
+                    if (line.length() > 8192) {
+                        emit();
+                    }
+                }
+            }
+        } finally {
+            clearBuckets();
+        }
+        line.append("]}");
+    }
+
+    private boolean isEmpty() {
+        for (Bucket bucket : buckets) {
+            if (bucket.size > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Writes out the line buffer and a newline; JSON is split only between values
+    private void emit() throws IOException {
+        out.append(line).append('\n');
+        line.setLength(0);
+    }
+
+    private StringBuilder seat(Flight flight, int seat) {
+        flight.getSeatMap().appendLabel(seat, line);
+        return line;
+    }
+
+    private StringBuilder time(LocalDateTime time) {
+        TIME_FORMAT.formatTo(time, line);
+        return line;
+    }
+
+    private StringBuilder metric(String name) {
+        return line.append(name).append(',');
+    }
+
+    // Same output as %.1f for the non-negative values reports deal in, without a Formatter
+    private StringBuilder tenths(double value) {
+        if (value < 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+            return line.append(String.format("%.1f", value));
+        }
+        long scaled = Math.round(value * 10);
+        return line.append(scaled / 10).append('.').append(scaled % 10);
+    }
+
+    private StringBuilder csv(String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return line.append(value);
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    private StringBuilder json(String value) {
+        return appendJson(line, value);
+    }
+
+    // Quoted and escaped JSON string, or null
+    static StringBuilder appendJson(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb.append("null");
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"');
+    }
+
+    private static final class Bucket {
+        private Passenger[] passengers = new Passenger[64];
+        private int[] seats = new int[64];
+        private int size;
+
+        private void add(Passenger passenger, int seat) {
+            if (size == passengers.length) {
+                passengers = Arrays.copyOf(passengers, size * 2);
+                seats = Arrays.copyOf(seats, size * 2);
+            }
+            passengers[size] = passenger;
+            seats[size] = seat;
+            size++;
+        }
+
+        private void clear() {
+            Arrays.fill(passengers, 0, size, null);
+            size = 0;
+        }
+    }
+}
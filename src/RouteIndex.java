@@ -0,0 +1,99 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Flights keyed by normalized origin, destination and (origin, destination) pair.
+// Kept current through FlightListener when a flight's route is edited.
+public class RouteIndex implements FlightListener {
+    private final Map<String, Set<Flight>> byOrigin;
+    private final Map<String, Set<Flight>> byDestination;
+    private final Map<String, Map<String, Set<Flight>>> byRoute;
+
+    public RouteIndex() {
+        this.byOrigin = new ConcurrentHashMap<>();
+        this.byDestination = new ConcurrentHashMap<>();
+        this.byRoute = new ConcurrentHashMap<>();
+    }
+
+    public void add(Flight flight) {
+        link(flight, normalize(flight.getOrigin()), normalize(flight.getDestination()));
+    }
+
+    public void remove(Flight flight) {
+        unlink(flight, normalize(flight.getOrigin()), normalize(flight.getDestination()));
+    }
+
+    @Override
+    public void onRouteChanged(Flight flight, String oldOrigin, String oldDestination) {
+        unlink(flight, normalize(oldOrigin), normalize(oldDestination));
+        add(flight);
+    }
+
+    public List<Flight> findByOrigin(String origin) {
+        return copyOf(byOrigin.get(normalize(origin)));
+    }
+
+    public List<Flight> findByDestination(String destination) {
+        return copyOf(byDestination.get(normalize(destination)));
+    }
+
+    public List<Flight> findByRoute(String origin, String destination) {
+        Map<String, Set<Flight>> destinations = byRoute.get(normalize(origin));
+        return copyOf(destinations != null ? destinations.get(normalize(destination)) : null);
+    }
+
+    // Substring match over the distinct destinations rather than over every flight
+    public List<Flight> findByDestinationContaining(String text) {
+        String needle = normalize(text);
+        List<Flight> result = new ArrayList<>();
+        for (Map.Entry<String, Set<Flight>> entry : byDestination.entrySet()) {
+            if (entry.getKey().contains(needle)) {
+                result.addAll(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private void link(Flight flight, String origin, String destination) {
+        addTo(byOrigin, origin, flight);
+        addTo(byDestination, destination, flight);
+        addTo(byRoute.computeIfAbsent(origin, k -> new ConcurrentHashMap<>()), destination, flight);
+    }
+
+    private void unlink(Flight flight, String origin, String destination) {
+        removeFrom(byOrigin, origin, flight);
+        removeFrom(byDestination, destination, flight);
+        Map<String, Set<Flight>> destinations = byRoute.get(origin);
+        if (destinations != null) {
+            removeFrom(destinations, destination, flight);
+        }
+    }
+
+    private static void addTo(Map<String, Set<Flight>> index, String key, Flight flight) {
+        index.compute(key, (k, flights) -> {
+            if (flights == null) {
+                flights = ConcurrentHashMap.newKeySet();
+            }
+            flights.add(flight);
+            return flights;
+        });
+    }
+
+    private static void removeFrom(Map<String, Set<Flight>> index, String key, Flight flight) {
+        index.computeIfPresent(key, (k, flights) -> {
+            flights.remove(flight);
+            return flights.isEmpty() ? null : flights;
+        });
+    }
+
+    private static List<Flight> copyOf(Set<Flight> flights) {
+        return flights != null ? new ArrayList<>(flights) : new ArrayList<>();
+    }
+
+    static String normalize(String place) {
+        return place == null ? "" : place.trim().toLowerCase(Locale.ROOT);
+    }
+}
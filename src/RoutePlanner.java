@@ -0,0 +1,225 @@
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Connection search over a time-expanded flight graph: each airport keeps its departures
+// ordered by time, so a query only walks the departures that can still be caught. Searches run
+// in rounds, one leg per round, and keep the earliest arrival per airport seen so far; a round
+// only revisits airports reached earlier than before, and departures later than the best known
+// arrival at the destination are never scanned. Fewest-legs queries stop at the first round that
+// reaches the destination; earliest-arrival queries run until no round improves it.
+//
+// Only flights that will still operate (scheduled, boarding or delayed) are in the graph. Route,
+// schedule and status changes move a single flight through the listener callbacks.
+public class RoutePlanner implements FlightListener {
+    public static final int MAX_LEGS = 6;
+
+    // Departures per normalized origin airport
+    private final Map<String, ConcurrentSkipListMap<DepartureKey, Edge>> departures;
+
+    public RoutePlanner() {
+        this.departures = new ConcurrentHashMap<>();
+    }
+
+    public void add(Flight flight) {
+        if (operates(flight.getStatus())) {
+            link(flight, flight.getOrigin(), flight.getDepartureTime());
+        }
+    }
+
+    public void remove(Flight flight) {
+        unlink(flight, flight.getOrigin(), flight.getDepartureTime());
+    }
+
+    @Override
+    public void onRouteChanged(Flight flight, String oldOrigin, String oldDestination) {
+        unlink(flight, oldOrigin, flight.getDepartureTime());
+        add(flight);
+    }
+
+    @Override
+    public void onScheduleChanged(Flight flight, LocalDateTime oldDeparture, LocalDateTime oldArrival) {
+        unlink(flight, flight.getOrigin(), oldDeparture);
+        add(flight);
+    }
+
+    @Override
+    public void onStatusChanged(Flight flight, Flight.FlightStatus oldStatus, Flight.FlightStatus newStatus) {
+        if (operates(newStatus)) {
+            add(flight);
+        } else {
+            remove(flight);
+        }
+    }
+
+    // Arrives as early as possible; an empty list if the destination cannot be reached by arriveBy
+    public List<Flight> findEarliestArrival(String origin, String destination, LocalDateTime departAfter,
+                                            LocalDateTime arriveBy, Duration minConnection,
+                                            Passenger.TicketClass ticketClass, int seats) {
+        return search(origin, destination, departAfter, arriveBy, minConnection, ticketClass, seats, false);
+    }
+
+    // Takes as few flights as possible, arriving as early as possible among those
+    public List<Flight> findFewestLegs(String origin, String destination, LocalDateTime departAfter,
+                                       LocalDateTime arriveBy, Duration minConnection,
+                                       Passenger.TicketClass ticketClass, int seats) {
+        return search(origin, destination, departAfter, arriveBy, minConnection, ticketClass, seats, true);
+    }
+
+    // A null arriveBy means no deadline and a null ticketClass no seat check
+    private List<Flight> search(String origin, String destination, LocalDateTime departAfter,
+                                LocalDateTime arriveBy, Duration minConnection,
+                                Passenger.TicketClass ticketClass, int seats, boolean fewestLegs) {
+        if (minConnection.isNegative() || seats < 0) {
+            throw new IllegalArgumentException("Connection time and seats must not be negative");
+        }
+        String from = RouteIndex.normalize(origin);
+        String to = RouteIndex.normalize(destination);
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("Origin and destination are the same");
+        }
+        Map<String, Leg> best = new HashMap<>();
+        // Airports first reached or improved in the previous round; the origin starts with no flight
+        Map<String, Leg> reachedLastRound = new HashMap<>();
+        reachedLastRound.put(from, new Leg(null, null, departAfter));
+        for (int round = 0; round < MAX_LEGS && !reachedLastRound.isEmpty(); round++) {
+            Map<String, Leg> reachedThisRound = new HashMap<>();
+            for (Map.Entry<String, Leg> start : reachedLastRound.entrySet()) {
+                ConcurrentSkipListMap<DepartureKey, Edge> outbound = departures.get(start.getKey());
+                if (outbound == null) {
+                    continue;
+                }
+                Leg previous = start.getValue();
+                LocalDateTime ready = previous.flight == null ? previous.arrival : previous.arrival.plus(minConnection);
+                for (Edge edge : outbound.tailMap(DepartureKey.lowerBound(ready), true).values()) {
+                    Flight flight = edge.flight;
+                    LocalDateTime departure = flight.getDepartureTime();
+                    Leg target = best.get(to);
+                    // Nothing departing from here on can arrive in time or beat the best arrival so far
+                    if ((arriveBy != null && departure.isAfter(arriveBy))
+                            || (target != null && !departure.isBefore(target.arrival))) {
+                        break;
+                    }
+                    LocalDateTime arrival = flight.getArrivalTime();
+                    String reached = edge.destination;
+                    Leg known = best.get(reached);
+                    if ((known != null && !arrival.isBefore(known.arrival))
+                            || (arriveBy != null && arrival.isAfter(arriveBy))
+                            || reached.equals(from) || !hasSeats(flight, ticketClass, seats)) {
+                        continue;
+                    }
+                    Leg leg = new Leg(flight, previous, arrival);
+                    best.put(reached, leg);
+                    if (!reached.equals(to)) {
+                        reachedThisRound.put(reached, leg);
+                    }
+                }
+            }
+            if (fewestLegs && best.containsKey(to)) {
+                break;
+            }
+            reachedLastRound = reachedThisRound;
+        }
+        return path(best.get(to));
+    }
+
+    private static boolean hasSeats(Flight flight, Passenger.TicketClass ticketClass, int seats) {
+        return ticketClass == null || flight.getAvailableSeats(ticketClass) >= seats;
+    }
+
+    private static List<Flight> path(Leg last) {
+        if (last == null) {
+            return Collections.emptyList();
+        }
+        List<Flight> legs = new ArrayList<>();
+        for (Leg leg = last; leg.flight != null; leg = leg.previous) {
+            legs.add(leg.flight);
+        }
+        Collections.reverse(legs);
+        return legs;
+    }
+
+    private static boolean operates(Flight.FlightStatus status) {
+        return status == Flight.FlightStatus.SCHEDULED || status == Flight.FlightStatus.BOARDING
+                || status == Flight.FlightStatus.DELAYED;
+    }
+
+    private void link(Flight flight, String origin, LocalDateTime departure) {
+        departures.computeIfAbsent(RouteIndex.normalize(origin), key -> new ConcurrentSkipListMap<>())
+                .put(new DepartureKey(departure, flight.getFlightCode()),
+                        new Edge(flight, RouteIndex.normalize(flight.getDestination())));
+    }
+
+    private void unlink(Flight flight, String origin, LocalDateTime departure) {
+        ConcurrentSkipListMap<DepartureKey, Edge> outbound = departures.get(RouteIndex.normalize(origin));
+        if (outbound != null) {
+            outbound.remove(new DepartureKey(departure, flight.getFlightCode()));
+        }
+    }
+
+    // A flight with its normalized destination; re-created whenever the route changes
+    private static final class Edge {
+        private final Flight flight;
+        private final String destination;
+
+        private Edge(Flight flight, String destination) {
+            this.flight = flight;
+            this.destination = destination;
+        }
+    }
+
+    // Best way found so far to reach an airport; legs share their common prefix, which ends at
+    // a start marker without a flight
+    private static final class Leg {
+        private final Flight flight;
+        private final Leg previous;
+        private final LocalDateTime arrival;
+
+        private Leg(Flight flight, Leg previous, LocalDateTime arrival) {
+            this.flight = flight;
+            this.previous = previous;
+            this.arrival = arrival;
+        }
+    }
+
+    private static final class DepartureKey implements Comparable<DepartureKey> {
+        private final LocalDateTime time;
+        private final String flightCode;
+
+        private DepartureKey(LocalDateTime time, String flightCode) {
+            this.time = time;
+            this.flightCode = flightCode;
+        }
+
+        // Sorts before every real key with the same time
+        private static DepartureKey lowerBound(LocalDateTime time) {
+            return new DepartureKey(time, "");
+        }
+
+        @Override
+        public int compareTo(DepartureKey other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : flightCode.compareTo(other.flightCode);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DepartureKey)) {
+                return false;
+            }
+            DepartureKey other = (DepartureKey) o;
+            return time.equals(other.time) && flightCode.equals(other.flightCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return time.hashCode() * 31 + flightCode.hashCode();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Flights ordered by departure and by arrival time for departure/arrival boards.
+// Range and next-K queries walk only the matching slice of the skip list.
+public class ScheduleIndex implements FlightListener {
+    private final ConcurrentSkipListMap<TimeKey, Flight> departures;
+    private final ConcurrentSkipListMap<TimeKey, Flight> arrivals;
+
+    public ScheduleIndex() {
+        this.departures = new ConcurrentSkipListMap<>();
+        this.arrivals = new ConcurrentSkipListMap<>();
+    }
+
+    public void add(Flight flight) {
+        departures.put(new TimeKey(flight.getDepartureTime(), flight.getFlightCode()), flight);
+        arrivals.put(new TimeKey(flight.getArrivalTime(), flight.getFlightCode()), flight);
+    }
+
+    public void remove(Flight flight) {
+        departures.remove(new TimeKey(flight.getDepartureTime(), flight.getFlightCode()));
+        arrivals.remove(new TimeKey(flight.getArrivalTime(), flight.getFlightCode()));
+    }
+
+    @Override
+    public void onScheduleChanged(Flight flight, LocalDateTime oldDeparture, LocalDateTime oldArrival) {
+        departures.remove(new TimeKey(oldDeparture, flight.getFlightCode()));
+        arrivals.remove(new TimeKey(oldArrival, flight.getFlightCode()));
+        add(flight);
+    }
+
+    // Departing in [from, to); a null status matches every flight
+    public List<Flight> findDepartingBetween(LocalDateTime from, LocalDateTime to, Flight.FlightStatus status) {
+        return collect(slice(departures, from, to), status, Integer.MAX_VALUE);
+    }
+
+    public List<Flight> findArrivingBetween(LocalDateTime from, LocalDateTime to, Flight.FlightStatus status) {
+        return collect(slice(arrivals, from, to), status, Integer.MAX_VALUE);
+    }
+
+    public List<Flight> findNextDepartures(LocalDateTime from, int limit, Flight.FlightStatus status) {
+        return collect(departures.tailMap(TimeKey.lowerBound(from), true), status, limit);
+    }
+
+    public List<Flight> findNextArrivals(LocalDateTime from, int limit, Flight.FlightStatus status) {
+        return collect(arrivals.tailMap(TimeKey.lowerBound(from), true), status, limit);
+    }
+
+    private static NavigableMap<TimeKey, Flight> slice(ConcurrentSkipListMap<TimeKey, Flight> index,
+                                                      LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return new ConcurrentSkipListMap<>();
+        }
+        return index.subMap(TimeKey.lowerBound(from), true, TimeKey.lowerBound(to), false);
+    }
+
+    private static List<Flight> collect(NavigableMap<TimeKey, Flight> slice, Flight.FlightStatus status, int limit) {
+        List<Flight> result = new ArrayList<>();
+        for (Flight flight : slice.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (status == null || flight.getStatus() == status) {
+                result.add(flight);
+            }
+        }
+        return result;
+    }
+
+    private static final class TimeKey implements Comparable<TimeKey> {
+        private final LocalDateTime time;
+        private final String flightCode;
+
+        private TimeKey(LocalDateTime time, String flightCode) {
+            this.time = time;
+            this.flightCode = flightCode;
+        }
+
+        // Sorts before every real key with the same time
+        private static TimeKey lowerBound(LocalDateTime time) {
+            return new TimeKey(time, "");
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : flightCode.compareTo(other.flightCode);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TimeKey)) {
+                return false;
+            }
+            TimeKey other = (TimeKey) o;
+            return time.equals(other.time) && flightCode.equals(other.flightCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return time.hashCode() * 31 + flightCode.hashCode();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of a script replay: overall throughput plus count, errors and latency per command
+public class ScriptReport {
+    private final List<CommandStats> commands;
+    private final List<ImportReport.RowError> errors;
+    private final Duration elapsed;
+
+    public ScriptReport(List<CommandStats> commands, List<ImportReport.RowError> errors, Duration elapsed) {
+        this.commands = Collections.unmodifiableList(new ArrayList<>(commands));
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+        this.elapsed = elapsed;
+    }
+
+    public List<CommandStats> getCommands() {
+        return commands;
+    }
+
+    public long getExecuted() {
+        long executed = 0;
+        for (CommandStats stats : commands) {
+            executed += stats.getCount();
+        }
+        return executed;
+    }
+
+    public long getFailed() {
+        long failed = 0;
+        for (CommandStats stats : commands) {
+            failed += stats.getFailed();
+        }
+        return failed;
+    }
+
+    // Capped, so a broken script cannot exhaust memory; getFailed() has the full count
+    public List<ImportReport.RowError> getErrors() {
+        return errors;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public double getCommandsPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds > 0 ? getExecuted() / seconds : 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Executed %d commands in %.2f s (%.0f commands/s): %d failed%n",
+                getExecuted(), elapsed.toNanos() / 1_000_000_000.0, getCommandsPerSecond(), getFailed()));
+        sb.append(String.format("%-20s %10s %8s %12s %10s %10s %10s %10s%n",
+                "Command", "count", "failed", "ops/s", "mean µs", "p50 µs", "p99 µs", "max µs"));
+        for (CommandStats stats : commands) {
+            LatencyHistogram latency = stats.getLatency();
+            sb.append(String.format("%-20s %10d %8d %12.0f %10.1f %10.1f %10.1f %10.1f%n",
+                    stats.getCommand(), stats.getCount(), stats.getFailed(), stats.getOpsPerSecond(),
+                    latency.getMean() / 1000.0, latency.getPercentile(50) / 1000.0,
+                    latency.getPercentile(99) / 1000.0, latency.getMax() / 1000.0));
+        }
+        return sb.toString();
+    }
+
+    public static class CommandStats {
+        private final String command;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long failed;
+        private long totalNanos;
+
+        public CommandStats(String command) {
+            this.command = command;
+        }
+
+        void record(long nanos, boolean succeeded) {
+            latency.record(nanos);
+            totalNanos += nanos;
+            if (!succeeded) {
+                failed++;
+            }
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        // Throughput while running this command alone: count over the time spent in it
+        public double getOpsPerSecond() {
+            return totalNanos > 0 ? getCount() * 1_000_000_000.0 / totalNanos : 0;
+        }
+    }
+}
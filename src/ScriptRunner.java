@@ -0,0 +1,67 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Replays a command script (one AirportCommands line per line, '#' starts a comment) against
+// a manager on the calling thread, timing every command. Results are discarded; failed
+// commands are counted and the first few reported, so a recorded trace can be replayed
+// end to end for capacity planning.
+public class ScriptRunner {
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final AirportCommands commands;
+
+    public ScriptRunner(AirportManager manager) {
+        this.commands = new AirportCommands(manager);
+    }
+
+    public ScriptReport run(Path script) throws IOException {
+        try (Reader reader = Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+            return run(reader);
+        }
+    }
+
+    public ScriptReport run(Reader source) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        Map<String, ScriptReport.CommandStats> stats = new LinkedHashMap<>();
+        List<ImportReport.RowError> errors = new ArrayList<>();
+        List<String> tokens = new ArrayList<>(8);
+        StringBuilder scratch = new StringBuilder();
+        long lineNumber = 0;
+        long start = System.nanoTime();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            tokens.clear();
+            String failure = null;
+            long commandStart = System.nanoTime();
+            try {
+                CommandTokenizer.tokenize(line, tokens, scratch);
+                if (tokens.isEmpty() || tokens.get(0).startsWith("#")) {
+                    continue;
+                }
+                commands.execute(tokens);
+            } catch (RuntimeException e) {
+                failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+            long elapsed = System.nanoTime() - commandStart;
+
+            String name = tokens.isEmpty() ? "(unparsable)" : tokens.get(0).toLowerCase(Locale.ROOT);
+            stats.computeIfAbsent(name, ScriptReport.CommandStats::new).record(elapsed, failure == null);
+            if (failure != null && errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(lineNumber, failure));
+            }
+        }
+        return new ScriptReport(new ArrayList<>(stats.values()), errors, Duration.ofNanos(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+// A seat taken out of availability while a customer pays. It ends exactly once: confirmed into
+// a booking, released by the caller, or expired by SeatHoldRegistry when its TTL runs out.
+public final class SeatHold {
+    public enum State {
+        HELD,
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+
+    private final long id;
+    private final Flight flight;
+    private final Passenger passenger;
+    private final Passenger.TicketClass ticketClass;
+    private final int seat;
+    private final long expiresAtMillis;
+    private final AtomicReference<State> state = new AtomicReference<>(State.HELD);
+    // Expiry timer; guarded by the registry's lock
+    TimingWheel.Timer<SeatHold> timer;
+
+    SeatHold(long id, Flight flight, Passenger passenger, Passenger.TicketClass ticketClass, int seat,
+             long expiresAtMillis) {
+        this.id = id;
+        this.flight = flight;
+        this.passenger = passenger;
+        this.ticketClass = ticketClass;
+        this.seat = seat;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    // Moves a held seat to its final state; only the first caller wins
+    boolean finish(State outcome) {
+        return state.compareAndSet(State.HELD, outcome);
+    }
+
+    public String getHoldId() {
+        return format(id);
+    }
+
+    long getNumericId() {
+        return id;
+    }
+
+    public Flight getFlight() {
+        return flight;
+    }
+
+    public Passenger getPassenger() {
+        return passenger;
+    }
+
+    public Passenger.TicketClass getTicketClass() {
+        return ticketClass;
+    }
+
+    int getSeatNumber() {
+        return seat;
+    }
+
+    public String getSeat() {
+        return flight.getSeatMap().getLabel(seat);
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    static String format(long id) {
+        return "H" + id;
+    }
+
+    // Returns -1 for anything that is not "H" followed by digits
+    static long parse(String holdId) {
+        if (holdId == null || holdId.length() < 2 || Character.toUpperCase(holdId.charAt(0)) != 'H') {
+            return -1;
+        }
+        try {
+            return Long.parseLong(holdId, 1, holdId.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getHoldId() + ": " + passenger.getPassengerId() + " on " + flight.getFlightCode() + " seat "
+                + getSeat() + " (" + ticketClass.getName() + ", " + state.get() + ")";
+    }
+}
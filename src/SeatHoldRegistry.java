@@ -0,0 +1,159 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time-limited seat holds across all flights. Placing a hold claims a seat through the same
+// counters as boarding, so availability drops at once; confirming turns the held seat into a
+// booking, and releasing or expiring gives it back (and to the waitlist, if anyone is waiting).
+// Deadlines live in one timing wheel, so expiry touches only holds that are due, never every
+// flight. The lock guards the wheel and the overdue list; seat claims and releases stay lock-free.
+public class SeatHoldRegistry implements AutoCloseable {
+    private static final long DEFAULT_TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 256;
+
+    private final Clock clock;
+    private final long tickMillis;
+    private final TimingWheel<SeatHold> wheel;
+    private final Map<Long, SeatHold> active = new ConcurrentHashMap<>();
+    // Holds whose deadline the wheel had already passed when they were placed; expired on the next tick
+    private final List<SeatHold> overdue = new ArrayList<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private volatile ScheduledExecutorService ticker;
+
+    public SeatHoldRegistry(Clock clock) {
+        this(clock, DEFAULT_TICK_MILLIS);
+    }
+
+    public SeatHoldRegistry(Clock clock, long tickMillis) {
+        this.clock = clock;
+        this.tickMillis = tickMillis;
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, clock.millis());
+    }
+
+    // Returns null if the cabin has no free seat
+    public SeatHold hold(Flight flight, Passenger passenger, Passenger.TicketClass ticketClass, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Hold time must be positive");
+        }
+        int seat = flight.holdSeat(passenger, ticketClass);
+        if (seat < 0) {
+            return null;
+        }
+        SeatHold hold = new SeatHold(nextId.getAndIncrement(), flight, passenger, ticketClass, seat,
+                clock.millis() + ttl.toMillis());
+        // Published under the wheel's lock once its timer is set, so expiry never sees it half placed
+        synchronized (this) {
+            hold.timer = wheel.schedule(hold.getExpiresAtMillis(), hold);
+            if (hold.timer == null) {
+                overdue.add(hold);
+            }
+            active.put(hold.getNumericId(), hold);
+        }
+        return hold;
+    }
+
+    public SeatHold find(String holdId) {
+        return active.get(SeatHold.parse(holdId));
+    }
+
+    // Books the held seat; false if the hold already ended or the flight no longer takes passengers
+    public boolean confirm(SeatHold hold) {
+        if (clock.millis() >= hold.getExpiresAtMillis()) {
+            expire(hold);
+            return false;
+        }
+        if (!hold.finish(SeatHold.State.CONFIRMED)) {
+            return false;
+        }
+        forget(hold);
+        return hold.getFlight().confirmHeldSeat(hold.getPassenger(), hold.getTicketClass(), hold.getSeatNumber());
+    }
+
+    public boolean release(SeatHold hold) {
+        return end(hold, SeatHold.State.RELEASED);
+    }
+
+    // Expires every hold that is due by the clock's current time; returns how many
+    public int expireDue() {
+        List<SeatHold> due = new ArrayList<>();
+        synchronized (this) {
+            due.addAll(overdue);
+            overdue.clear();
+            wheel.advance(clock.millis(), due::add);
+        }
+        int expired = 0;
+        for (SeatHold hold : due) {
+            if (expire(hold)) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    // Expires holds on a daemon thread until closed; tests call expireDue() with their own clock
+    public void start() {
+        if (ticker != null) {
+            return;
+        }
+        synchronized (this) {
+            if (ticker == null) {
+                ticker = startTicker();
+            }
+        }
+    }
+
+    private ScheduledExecutorService startTicker() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seat-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                expireDue();
+            } catch (RuntimeException e) {
+                System.err.println("Seat hold expiry failed: " + e.getMessage());
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    private boolean expire(SeatHold hold) {
+        return end(hold, SeatHold.State.EXPIRED);
+    }
+
+    private boolean end(SeatHold hold, SeatHold.State outcome) {
+        if (!hold.finish(outcome)) {
+            return false;
+        }
+        forget(hold);
+        hold.getFlight().releaseHeldSeat(hold.getTicketClass(), hold.getSeatNumber());
+        return true;
+    }
+
+    private void forget(SeatHold hold) {
+        active.remove(hold.getNumericId());
+        synchronized (this) {
+            wheel.cancel(hold.timer);
+        }
+    }
+}
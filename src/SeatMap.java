@@ -0,0 +1,250 @@
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+// Seat occupancy for one flight. Seats of all cabins are numbered consecutively, row by row,
+// and tracked in bitsets: "taken" covers assigned, blocked and uninstalled seats, so finding
+// a free seat is a single nextClearBit from a per-cabin low-water hint. Every operation works
+// on preallocated state and creates no garbage; labels are only rendered for display.
+//
+// Flight's per-class counters remain the admission check, and a seat is only requested here
+// after one has been claimed there, so assign() always finds one.
+public class SeatMap {
+    private final List<Cabin> cabins;
+    private final int[] cabinStart;
+    private final int[] hints;
+    private final int seatTotal;
+    private final BitSet taken;
+    private final BitSet blocked;
+
+    public SeatMap(List<Cabin> cabins) {
+        this.cabins = List.copyOf(cabins);
+        this.cabinStart = new int[cabins.size() + 1];
+        this.hints = new int[cabins.size()];
+        for (int i = 0; i < this.cabins.size(); i++) {
+            Cabin cabin = this.cabins.get(i);
+            for (int j = 0; j < i; j++) {
+                Cabin other = this.cabins.get(j);
+                if (cabin.getFirstRow() < other.getFirstRow() + other.getRows()
+                        && other.getFirstRow() < cabin.getFirstRow() + cabin.getRows()) {
+                    throw new IllegalArgumentException("Cabins " + other.getName() + " and " + cabin.getName()
+                            + " share row numbers");
+                }
+            }
+            hints[i] = cabinStart[i];
+            cabinStart[i + 1] = cabinStart[i] + cabin.getRows() * cabin.getSeatsPerRow();
+        }
+        this.seatTotal = cabinStart[cabins.size()];
+        this.taken = new BitSet(seatTotal);
+        this.blocked = new BitSet(seatTotal);
+        for (int i = 0; i < this.cabins.size(); i++) {
+            taken.set(cabinStart[i] + this.cabins.get(i).getSeatCount(), cabinStart[i + 1]);
+        }
+    }
+
+    public List<Cabin> getCabins() {
+        return Collections.unmodifiableList(cabins);
+    }
+
+    // Installed seats serving a ticket class, blocked ones included
+    public int getCapacity(Passenger.TicketClass ticketClass) {
+        int capacity = 0;
+        for (Cabin cabin : cabins) {
+            if (cabin.getTicketClass() == ticketClass) {
+                capacity += cabin.getSeatCount();
+            }
+        }
+        return capacity;
+    }
+
+    // Lowest free seat in the first cabin of the class that has one, or -1
+    public synchronized int assign(Passenger.TicketClass ticketClass) {
+        for (int i = 0; i < hints.length; i++) {
+            if (cabins.get(i).getTicketClass() != ticketClass) {
+                continue;
+            }
+            int seat = taken.nextClearBit(hints[i]);
+            if (seat < cabinStart[i + 1]) {
+                taken.set(seat);
+                hints[i] = seat + 1;
+                return seat;
+            }
+            hints[i] = cabinStart[i + 1];
+        }
+        return -1;
+    }
+
+    // Takes a specific seat if it is free and serves the class
+    public synchronized boolean assign(int seat, Passenger.TicketClass ticketClass) {
+        int cabin = cabinOf(seat);
+        if (cabin < 0 || cabins.get(cabin).getTicketClass() != ticketClass || taken.get(seat)) {
+            return false;
+        }
+        taken.set(seat);
+        return true;
+    }
+
+    // Finds count free seats side by side in one row, not split by an aisle, and takes them.
+    // Fills seats[0..count) and returns true, or leaves everything untouched and returns false.
+    public synchronized boolean assignAdjacent(Passenger.TicketClass ticketClass, int count, int[] seats) {
+        if (count <= 0 || count > seats.length) {
+            throw new IllegalArgumentException("Invalid group size: " + count);
+        }
+        for (int i = 0; i < cabins.size(); i++) {
+            Cabin cabin = cabins.get(i);
+            if (cabin.getTicketClass() != ticketClass || count > cabin.getSeatsPerRow()) {
+                continue;
+            }
+            int width = cabin.getSeatsPerRow();
+            // Rows wholly below the hint are full, so the search starts at the hint's row
+            for (int rowStart = cabinStart[i] + (hints[i] - cabinStart[i]) / width * width;
+                 rowStart < cabinStart[i + 1]; rowStart += width) {
+                int run = 0;
+                for (int column = 0; column < width; column++) {
+                    run = taken.get(rowStart + column) ? 0 : run + 1;
+                    if (run == count) {
+                        int first = rowStart + column - count + 1;
+                        taken.set(first, first + count);
+                        for (int k = 0; k < count; k++) {
+                            seats[k] = first + k;
+                        }
+                        return true;
+                    }
+                    if (cabin.hasAisleAfter(column)) {
+                        run = 0;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public synchronized void release(int seat) {
+        int cabin = cabinOf(seat);
+        if (cabin < 0 || blocked.get(seat) || seat - cabinStart[cabin] >= cabins.get(cabin).getSeatCount()) {
+            return;
+        }
+        taken.clear(seat);
+        if (seat < hints[cabin]) {
+            hints[cabin] = seat;
+        }
+    }
+
+    // Blocking only succeeds on a free seat; Flight claims a counter seat for it first
+    public synchronized boolean block(int seat) {
+        int cabin = cabinOf(seat);
+        if (cabin < 0 || taken.get(seat)) {
+            return false;
+        }
+        taken.set(seat);
+        blocked.set(seat);
+        return true;
+    }
+
+    public synchronized boolean unblock(int seat) {
+        if (seat < 0 || seat >= seatTotal || !blocked.get(seat)) {
+            return false;
+        }
+        blocked.clear(seat);
+        release(seat);
+        return true;
+    }
+
+    public synchronized boolean isBlocked(int seat) {
+        return seat >= 0 && seat < seatTotal && blocked.get(seat);
+    }
+
+    public synchronized int[] getBlockedSeats() {
+        return blocked.stream().toArray();
+    }
+
+    public Passenger.TicketClass getTicketClass(int seat) {
+        int cabin = cabinOf(seat);
+        return cabin >= 0 ? cabins.get(cabin).getTicketClass() : null;
+    }
+
+    // "12C" style label; null for a seat number outside the map
+    public String getLabel(int seat) {
+        return cabinOf(seat) < 0 ? null : appendLabel(seat, new StringBuilder(4)).toString();
+    }
+
+    // Appends the label without creating a String; "--" for a seat number outside the map
+    public StringBuilder appendLabel(int seat, StringBuilder sb) {
+        int cabin = cabinOf(seat);
+        if (cabin < 0) {
+            return sb.append("--");
+        }
+        Cabin c = cabins.get(cabin);
+        int offset = seat - cabinStart[cabin];
+        return sb.append(c.getFirstRow() + offset / c.getSeatsPerRow())
+                .append(c.getLetters().charAt(offset % c.getSeatsPerRow()));
+    }
+
+    // Seat number for a label such as "12C", or -1 if the map has no such installed seat
+    public int findSeat(String label) {
+        if (label == null) {
+            return -1;
+        }
+        String trimmed = label.trim().toUpperCase();
+        int digits = 0;
+        while (digits < trimmed.length() && Character.isDigit(trimmed.charAt(digits))) {
+            digits++;
+        }
+        if (digits == 0 || digits > 4 || digits != trimmed.length() - 1) {
+            return -1;
+        }
+        int row = Integer.parseInt(trimmed.substring(0, digits));
+        char letter = trimmed.charAt(digits);
+        for (int i = 0; i < cabins.size(); i++) {
+            Cabin cabin = cabins.get(i);
+            int column = cabin.getLetters().indexOf(letter);
+            if (row >= cabin.getFirstRow() && row < cabin.getFirstRow() + cabin.getRows() && column >= 0) {
+                int offset = (row - cabin.getFirstRow()) * cabin.getSeatsPerRow() + column;
+                return offset < cabin.getSeatCount() ? cabinStart[i] + offset : -1;
+            }
+        }
+        return -1;
+    }
+
+    // One line per row: '.' free, 'X' taken, '#' blocked, aisles as in the cabin layout
+    public synchronized String render() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cabins.size(); i++) {
+            Cabin cabin = cabins.get(i);
+            int width = cabin.getSeatsPerRow();
+            sb.append(cabin.getName()).append(" (").append(cabin.getTicketClass().getName()).append(")\n");
+            sb.append("     ").append(cabin.getLayout()).append('\n');
+            for (int row = 0; row < cabin.getRows(); row++) {
+                sb.append(String.format("%4d ", cabin.getFirstRow() + row));
+                for (int column = 0; column < width; column++) {
+                    int offset = row * width + column;
+                    int seat = cabinStart[i] + offset;
+                    if (offset >= cabin.getSeatCount()) {
+                        sb.append(' ');
+                    } else if (blocked.get(seat)) {
+                        sb.append('#');
+                    } else {
+                        sb.append(taken.get(seat) ? 'X' : '.');
+                    }
+                    if (cabin.hasAisleAfter(column)) {
+                        sb.append(' ');
+                    }
+                }
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private int cabinOf(int seat) {
+        if (seat < 0 || seat >= seatTotal) {
+            return -1;
+        }
+        for (int i = 0; i < cabins.size(); i++) {
+            if (seat < cabinStart[i + 1]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
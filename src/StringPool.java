@@ -0,0 +1,120 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Deduplicated UTF-8 strings packed into one growing byte array and addressed by int offset.
+// Repeated values such as city names in addresses are stored once. Entries are never freed;
+// space from removed passengers is reclaimed when the store is rebuilt from a snapshot.
+// Not thread-safe: the owning PassengerStore guards it.
+public class StringPool {
+    public static final int NULL_REF = -1;
+
+    private byte[] data;
+    private int used;
+    private int[] table;  // ref + 1, 0 marks an empty slot
+    private int[] hashes;
+    private int count;
+
+    public StringPool() {
+        this.data = new byte[1 << 16];
+        this.table = new int[1024];
+        this.hashes = new int[1024];
+    }
+
+    public int intern(String value) {
+        if (value == null) {
+            return NULL_REF;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int hash = Arrays.hashCode(bytes);
+        int mask = table.length - 1;
+        int i = hash & mask;
+        while (table[i] != 0) {
+            if (hashes[i] == hash && matches(table[i] - 1, bytes)) {
+                return table[i] - 1;
+            }
+            i = (i + 1) & mask;
+        }
+
+        int ref = append(bytes);
+        table[i] = ref + 1;
+        hashes[i] = hash;
+        count++;
+        if (count * 3 > table.length * 2) {
+            rehash();
+        }
+        return ref;
+    }
+
+    public String get(int ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        int length = 0;
+        int shift = 0;
+        int position = ref;
+        byte b;
+        do {
+            b = data[position++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return new String(data, position, length, StandardCharsets.UTF_8);
+    }
+
+    public long getBytesUsed() {
+        return used + 8L * table.length;
+    }
+
+    private boolean matches(int ref, byte[] bytes) {
+        int length = 0;
+        int shift = 0;
+        int position = ref;
+        byte b;
+        do {
+            b = data[position++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return length == bytes.length
+                && Arrays.equals(data, position, position + length, bytes, 0, bytes.length);
+    }
+
+    // Varint length prefix followed by the bytes; most strings pay a single header byte
+    private int append(byte[] bytes) {
+        long needed = (long) used + bytes.length + 5;
+        if (needed > data.length) {
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("String pool is full");
+            }
+            data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, data.length * 2L)));
+        }
+        int ref = used;
+        int length = bytes.length;
+        while (length >= 0x80) {
+            data[used++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        data[used++] = (byte) length;
+        System.arraycopy(bytes, 0, data, used, bytes.length);
+        used += bytes.length;
+        return ref;
+    }
+
+    private void rehash() {
+        int[] oldTable = table;
+        int[] oldHashes = hashes;
+        table = new int[oldTable.length * 2];
+        hashes = new int[oldHashes.length * 2];
+        int mask = table.length - 1;
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldTable[i] != 0) {
+                int j = oldHashes[i] & mask;
+                while (table[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                table[j] = oldTable[i];
+                hashes[j] = oldHashes[i];
+            }
+        }
+    }
+}
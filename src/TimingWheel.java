@@ -0,0 +1,211 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel: scheduling and cancelling are O(1), and advancing costs O(1) per
+// tick plus the timers that fire, however many timers are pending. Level 0 has one bucket per
+// tick; each higher level has buckets as wide as the whole level below and is created only
+// when a deadline is that far out. When time reaches a higher-level bucket, its timers are
+// cascaded down to finer buckets. Stretches with nothing pending below a level are skipped in
+// one step, so an idle wheel can jump far ahead cheaply.
+//
+// advance() fires exactly the timers that are due, never early. Not thread-safe; callers synchronize.
+public class TimingWheel<T> {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int shift;
+    private final List<Level> levels = new ArrayList<>();
+    // Start of the first level-0 tick that has not fired yet; every deadline before it has fired
+    private long currentTime;
+    // Time of the last advance; deadlines up to it have fired
+    private long now;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.shift = Integer.numberOfTrailingZeros(wheelSize);
+        this.currentTime = Math.floorDiv(startMillis, tickMillis) * tickMillis;
+        this.now = startMillis;
+        levels.add(new Level(tickMillis));
+    }
+
+    // Returns null if the deadline has already passed; the caller should run the task itself
+    public Timer<T> schedule(long deadlineMillis, T task) {
+        Timer<T> timer = new Timer<>(deadlineMillis, task);
+        if (deadlineMillis <= now || !insert(timer)) {
+            return null;
+        }
+        size++;
+        return timer;
+    }
+
+    public boolean cancel(Timer<T> timer) {
+        if (timer == null || timer.level < 0) {
+            return false;
+        }
+        levels.get(timer.level).count--;
+        timer.unlink();
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Fires every timer whose deadline is at or before nowMillis, in deadline order to within a
+    // tick; the callback must not schedule or cancel timers on this wheel
+    public void advance(long nowMillis, Consumer<T> expired) {
+        if (nowMillis <= now) {
+            return;
+        }
+        now = nowMillis;
+        long target = Math.floorDiv(nowMillis + 1, tickMillis) * tickMillis;
+        while (currentTime < target) {
+            if (size == 0) {
+                currentTime = target;
+                return;
+            }
+            int lowest = 0;
+            while (levels.get(lowest).count == 0) {
+                lowest++;
+            }
+            if (lowest == 0) {
+                Level level = levels.get(0);
+                Timer<T> bucket = level.bucket(currentTime);
+                while (bucket.next != bucket) {
+                    Timer<T> timer = bucket.next;
+                    level.count--;
+                    timer.unlink();
+                    size--;
+                    expired.accept(timer.task);
+                }
+                currentTime += tickMillis;
+            } else {
+                // Nothing pending below this level before its next bucket starts
+                long step = levels.get(lowest).tick;
+                currentTime = Math.min(target, (Math.floorDiv(currentTime, step) + 1) * step);
+            }
+            cascade();
+        }
+        // The current tick is only partly over; fire what is due in it so far
+        Level first = levels.get(0);
+        if (first.count > 0) {
+            Timer<T> bucket = first.bucket(currentTime);
+            Timer<T> timer = bucket.next;
+            while (timer != bucket) {
+                Timer<T> following = timer.next;
+                if (timer.deadline <= nowMillis) {
+                    first.count--;
+                    timer.unlink();
+                    size--;
+                    expired.accept(timer.task);
+                }
+                timer = following;
+            }
+        }
+    }
+
+    // Moves the buckets that start at currentTime down a level, coarsest first
+    private void cascade() {
+        for (int i = levels.size() - 1; i > 0; i--) {
+            Level level = levels.get(i);
+            if (currentTime % level.tick != 0 || level.count == 0) {
+                continue;
+            }
+            Timer<T> bucket = level.bucket(currentTime);
+            while (bucket.next != bucket) {
+                Timer<T> timer = bucket.next;
+                level.count--;
+                timer.unlink();
+                insert(timer);
+            }
+        }
+    }
+
+    private boolean insert(Timer<T> timer) {
+        long deadline = timer.deadline;
+        if (deadline < currentTime) {
+            return false;
+        }
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                levels.add(new Level(levels.get(i - 1).tick << shift));
+            }
+            Level level = levels.get(i);
+            // The level covers wheelSize buckets from the one containing currentTime; the bucket
+            // holding currentTime itself has already cascaded, so it is never reused here
+            long base = Math.floorDiv(currentTime, level.tick) * level.tick;
+            if (deadline < base + level.tick * wheelSize) {
+                timer.level = i;
+                timer.linkBefore(level.bucket(deadline));
+                level.count++;
+                return true;
+            }
+        }
+    }
+
+    private final class Level {
+        private final long tick;
+        private final Timer<T>[] buckets;
+        private int count;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Level(long tick) {
+            this.tick = tick;
+            this.buckets = new Timer[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Timer<>(0, null);
+            }
+        }
+
+        Timer<T> bucket(long time) {
+            return buckets[(int) (Math.floorDiv(time, tick) & (wheelSize - 1))];
+        }
+    }
+
+    // A pending timer; bucket heads are sentinel timers of a circular doubly linked list
+    public static final class Timer<T> {
+        private final long deadline;
+        private final T task;
+        private Timer<T> prev = this;
+        private Timer<T> next = this;
+        private int level = -1;
+
+        private Timer(long deadline, T task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public T getTask() {
+            return task;
+        }
+
+        public boolean isPending() {
+            return level >= 0;
+        }
+
+        private void linkBefore(Timer<T> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+            level = -1;
+        }
+    }
+}
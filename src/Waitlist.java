@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Passengers waiting for a seat on one flight, one queue per cabin class. Higher priority is
+// served first, then first come first served. Queues are binary heaps, so joining and taking
+// the next passenger are O(log n); leaving marks the entry and it is discarded when it reaches
+// the head. All methods lock the waitlist; isEmpty() is a lock-free hint for the hot path.
+public class Waitlist {
+    private final PriorityQueue<Entry> economy = new PriorityQueue<>();
+    private final PriorityQueue<Entry> business = new PriorityQueue<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private long sequence;
+    private volatile int size;
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Returns false if the passenger is already waiting on this flight
+    public synchronized boolean add(Passenger passenger, Passenger.TicketClass ticketClass, int priority) {
+        String passengerId = passenger.getPassengerId();
+        if (entries.containsKey(passengerId)) {
+            return false;
+        }
+        Entry entry = new Entry(passenger, ticketClass, priority, sequence++);
+        entries.put(passengerId, entry);
+        queue(ticketClass).add(entry);
+        size++;
+        return true;
+    }
+
+    public synchronized boolean remove(String passengerId) {
+        Entry entry = entries.remove(passengerId);
+        if (entry == null) {
+            return false;
+        }
+        entry.removed = true;
+        size--;
+        return true;
+    }
+
+    // Next passenger to promote, skipping anyone who left or was removed from the registry
+    synchronized Passenger peek(Passenger.TicketClass ticketClass) {
+        PriorityQueue<Entry> queue = queue(ticketClass);
+        while (!queue.isEmpty()) {
+            Entry head = queue.peek();
+            if (!head.removed && head.passenger.isRegistered()) {
+                return head.passenger;
+            }
+            queue.poll();
+            if (!head.removed) {
+                entries.remove(head.passenger.getPassengerId());
+                size--;
+            }
+        }
+        return null;
+    }
+
+    synchronized Passenger poll(Passenger.TicketClass ticketClass) {
+        Passenger next = peek(ticketClass);
+        if (next != null) {
+            entries.remove(queue(ticketClass).poll().passenger.getPassengerId());
+            size--;
+        }
+        return next;
+    }
+
+    public synchronized int size(Passenger.TicketClass ticketClass) {
+        int count = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.ticketClass == ticketClass) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 1-based place in its cabin's queue, or 0 if the passenger is not waiting
+    public synchronized int getPosition(String passengerId) {
+        Entry entry = entries.get(passengerId);
+        if (entry == null) {
+            return 0;
+        }
+        int ahead = 0;
+        for (Entry other : entries.values()) {
+            if (other.ticketClass == entry.ticketClass && other.compareTo(entry) < 0) {
+                ahead++;
+            }
+        }
+        return ahead + 1;
+    }
+
+    // Waiting passengers of one cabin in promotion order
+    public synchronized List<Passenger> getPassengers(Passenger.TicketClass ticketClass) {
+        List<Entry> waiting = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.ticketClass == ticketClass) {
+                waiting.add(entry);
+            }
+        }
+        waiting.sort(null);
+        List<Passenger> passengers = new ArrayList<>(waiting.size());
+        for (Entry entry : waiting) {
+            passengers.add(entry.passenger);
+        }
+        return passengers;
+    }
+
+    private PriorityQueue<Entry> queue(Passenger.TicketClass ticketClass) {
+        return ticketClass == Passenger.TicketClass.BUSINESS ? business : economy;
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final Passenger passenger;
+        private final Passenger.TicketClass ticketClass;
+        private final int priority;
+        private final long sequence;
+        private boolean removed;
+
+        Entry(Passenger passenger, Passenger.TicketClass ticketClass, int priority, long sequence) {
+            this.passenger = passenger;
+            this.ticketClass = ticketClass;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}